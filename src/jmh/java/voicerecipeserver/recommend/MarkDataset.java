@@ -0,0 +1,192 @@
+package voicerecipeserver.recommend;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Marks for the benchmarks and the offline evaluation, generated or read from an export of the marks table.
+ * In generated datasets recipe popularity is skewed, like in the real catalog: a few recipes are rated by most users
+ * and most recipes have only a couple of marks.
+ */
+public class MarkDataset {
+    private final long[] userIds;
+    private final long[] recipeIds;
+    private final float[] marks;
+    private final int users;
+
+    private MarkDataset(long[] userIds, long[] recipeIds, float[] marks, int users) {
+        this.userIds = userIds;
+        this.recipeIds = recipeIds;
+        this.marks = marks;
+        this.users = users;
+    }
+
+    /**
+     * @param marksPerUser density of the dataset, a user may rate the same recipe twice, so the real number of marks
+     *                     is a bit lower for the most popular recipes
+     */
+    public static MarkDataset generate(int users, int recipes, int marksPerUser, long seed) {
+        Random random = new Random(seed);
+        int size = users * marksPerUser;
+        long[] userIds = new long[size];
+        long[] recipeIds = new long[size];
+        float[] marks = new float[size];
+        for (int i = 0; i < size; ++i) {
+            double r = random.nextDouble();
+            userIds[i] = 1 + i / marksPerUser;
+            recipeIds[i] = 1 + (long) (recipes * r * r);
+            marks[i] = 1 + random.nextInt(5);
+        }
+        return new MarkDataset(userIds, recipeIds, marks, users);
+    }
+
+    /**
+     * Same as {@link #generate} but the marks follow hidden user tastes and recipe qualities instead of being
+     * uniform noise, so prediction errors of different recommenders can be compared
+     */
+    public static MarkDataset generateWithTastes(int users, int recipes, int marksPerUser, long seed) {
+        Random random = new Random(seed);
+        int factors = 4;
+        double[][] recipeFactors = new double[recipes][factors];
+        double[] recipeBias = new double[recipes];
+        for (int r = 0; r < recipes; ++r) {
+            recipeBias[r] = random.nextGaussian() * 0.5;
+            for (int f = 0; f < factors; ++f) {
+                recipeFactors[r][f] = random.nextGaussian();
+            }
+        }
+        int size = users * marksPerUser;
+        long[] userIds = new long[size];
+        long[] recipeIds = new long[size];
+        float[] marks = new float[size];
+        double[] userFactors = new double[factors];
+        for (int u = 0; u < users; ++u) {
+            double userBias = random.nextGaussian() * 0.5;
+            for (int f = 0; f < factors; ++f) {
+                userFactors[f] = random.nextGaussian() * 0.5;
+            }
+            for (int i = u * marksPerUser; i < (u + 1) * marksPerUser; ++i) {
+                double r = random.nextDouble();
+                int recipe = (int) (recipes * r * r);
+                double mark = 3 + userBias + recipeBias[recipe] + random.nextGaussian() * 0.5;
+                for (int f = 0; f < factors; ++f) {
+                    mark += userFactors[f] * recipeFactors[recipe][f];
+                }
+                userIds[i] = u + 1;
+                recipeIds[i] = recipe + 1;
+                marks[i] = (float) Math.max(1, Math.min(5, Math.round(mark)));
+            }
+        }
+        return new MarkDataset(userIds, recipeIds, marks, users);
+    }
+
+    /**
+     * Reads "user_id,recipe_id,mark" lines, e.g. from {@code \copy marks (user_id, recipe_id, mark) TO 'marks.csv' CSV}.
+     * Lines that don't start with a number, like a header, are skipped.
+     */
+    public static MarkDataset read(Path csv) throws IOException {
+        long[] userIds = new long[1024];
+        long[] recipeIds = new long[1024];
+        float[] marks = new float[1024];
+        Set<Long> users = new HashSet<>();
+        int size = 0;
+        try (BufferedReader reader = Files.newBufferedReader(csv)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split(",");
+                if (fields.length < 3 || fields[0].isEmpty() || !Character.isDigit(fields[0].charAt(0))) {
+                    continue;
+                }
+                if (size == userIds.length) {
+                    userIds = Arrays.copyOf(userIds, size * 2);
+                    recipeIds = Arrays.copyOf(recipeIds, size * 2);
+                    marks = Arrays.copyOf(marks, size * 2);
+                }
+                userIds[size] = Long.parseLong(fields[0].trim());
+                recipeIds[size] = Long.parseLong(fields[1].trim());
+                marks[size] = Float.parseFloat(fields[2].trim());
+                users.add(userIds[size]);
+                ++size;
+            }
+        }
+        return new MarkDataset(Arrays.copyOf(userIds, size), Arrays.copyOf(recipeIds, size),
+                               Arrays.copyOf(marks, size), users.size());
+    }
+
+    /**
+     * Splits the dataset into training and held out marks. Every user with at least two marks keeps one in the
+     * training part, so the recommenders have something to predict from.
+     *
+     * @return two datasets, the training one first
+     */
+    public MarkDataset[] split(double holdout, long seed) {
+        Random random = new Random(seed);
+        Map<Long, Integer> kept = new HashMap<>();
+        for (long userId : userIds) {
+            kept.merge(userId, 1, Integer::sum);
+        }
+        boolean[] heldOut = new boolean[size()];
+        int heldOutCount = 0;
+        for (int i = 0; i < size(); ++i) {
+            if (random.nextDouble() < holdout && kept.get(userIds[i]) > 1) {
+                heldOut[i] = true;
+                ++heldOutCount;
+                kept.merge(userIds[i], -1, Integer::sum);
+            }
+        }
+        return new MarkDataset[]{subset(heldOut, false, size() - heldOutCount), subset(heldOut, true, heldOutCount)};
+    }
+
+    private MarkDataset subset(boolean[] heldOut, boolean value, int count) {
+        long[] subsetUserIds = new long[count];
+        long[] subsetRecipeIds = new long[count];
+        float[] subsetMarks = new float[count];
+        Set<Long> subsetUsers = new HashSet<>();
+        int j = 0;
+        for (int i = 0; i < size(); ++i) {
+            if (heldOut[i] == value) {
+                subsetUserIds[j] = userIds[i];
+                subsetRecipeIds[j] = recipeIds[i];
+                subsetMarks[j] = marks[i];
+                subsetUsers.add(userIds[i]);
+                ++j;
+            }
+        }
+        return new MarkDataset(subsetUserIds, subsetRecipeIds, subsetMarks, subsetUsers.size());
+    }
+
+    public SlopeOneModelBuilder toBuilder(SlopeOneVariant variant, int neighbors) {
+        SlopeOneModelBuilder builder = new SlopeOneModelBuilder(variant, neighbors);
+        for (int i = 0; i < size(); ++i) {
+            builder.addMark(userIds[i], recipeIds[i], marks[i]);
+        }
+        return builder;
+    }
+
+    public int size() {
+        return userIds.length;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public long userIdAt(int i) {
+        return userIds[i];
+    }
+
+    public long recipeIdAt(int i) {
+        return recipeIds[i];
+    }
+
+    public float markAt(int i) {
+        return marks[i];
+    }
+}
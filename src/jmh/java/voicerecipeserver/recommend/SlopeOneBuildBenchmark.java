@@ -0,0 +1,51 @@
+package voicerecipeserver.recommend;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full build of the model from all marks, what a node does at startup without a snapshot
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class SlopeOneBuildBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int users;
+    @Param({"1000", "20000"})
+    private int recipes;
+    @Param({"10", "50"})
+    private int marksPerUser;
+    @Param({"WEIGHTED"})
+    private SlopeOneVariant variant;
+    @Param({"0"})
+    private int neighbors;
+
+    private MarkDataset dataset;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = MarkDataset.generate(users, recipes, marksPerUser, 42);
+        pool = new ForkJoinPool();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public SlopeOneModel build() {
+        return dataset.toBuilder(variant, neighbors).build();
+    }
+
+    @Benchmark
+    public SlopeOneModel buildParallel() {
+        return dataset.toBuilder(variant, neighbors).build(pool);
+    }
+}
@@ -0,0 +1,42 @@
+package voicerecipeserver.recommend;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring of a single user, what a recommendations request does on a cache miss
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SlopeOnePredictBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int users;
+    @Param({"1000", "20000"})
+    private int recipes;
+    @Param({"10", "50"})
+    private int marksPerUser;
+    @Param({"WEIGHTED"})
+    private SlopeOneVariant variant;
+    @Param({"0"})
+    private int neighbors;
+    @Param({"100"})
+    private int n;
+
+    private SlopeOneModel model;
+    private long nextUserId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        model = MarkDataset.generate(users, recipes, marksPerUser, 42).toBuilder(variant, neighbors).build();
+    }
+
+    @Benchmark
+    public long[] recommend() {
+        nextUserId = nextUserId % users + 1;
+        return model.recommend(model.getUserMarks(nextUserId), n);
+    }
+}
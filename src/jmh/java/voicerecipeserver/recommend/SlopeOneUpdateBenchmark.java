@@ -0,0 +1,44 @@
+package voicerecipeserver.recommend;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Incremental update of a built model by a single mark. Marks of the dataset are replaced by other values, so the
+ * size of the model stays the same during the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SlopeOneUpdateBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int users;
+    @Param({"1000", "20000"})
+    private int recipes;
+    @Param({"10", "50"})
+    private int marksPerUser;
+    @Param({"WEIGHTED"})
+    private SlopeOneVariant variant;
+    @Param({"0"})
+    private int neighbors;
+
+    private MarkDataset dataset;
+    private SlopeOneModel model;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = MarkDataset.generate(users, recipes, marksPerUser, 42);
+        model = dataset.toBuilder(variant, neighbors).build();
+    }
+
+    @Benchmark
+    public void setMark() {
+        int i = next;
+        next = (next + 7919) % dataset.size();
+        model.setMark(dataset.userIdAt(i), dataset.recipeIdAt(i), 1 + (dataset.markAt(i) + next) % 5);
+    }
+}
@@ -0,0 +1,28 @@
+package voicerecipeserver.recommend.evaluation;
+
+import voicerecipeserver.recommend.MarkDataset;
+
+/**
+ * A recommender compared by {@link RecommenderEvaluation}. New algorithms are plugged in by implementing this
+ * interface and adding them to the list of the evaluated recommenders.
+ */
+public interface EvaluatedRecommender {
+    String name();
+
+    void train(MarkDataset marks);
+
+    /**
+     * @return predicted mark of the recipe for the user or NaN if the recommender can't predict it
+     */
+    float predict(long userId, long recipeId);
+
+    /**
+     * @return ids of the best n recipes for the user, the best first, recipes rated by the user may be included
+     */
+    long[] recommend(long userId, int n);
+
+    /**
+     * @return estimated size of the trained model
+     */
+    long memoryBytes();
+}
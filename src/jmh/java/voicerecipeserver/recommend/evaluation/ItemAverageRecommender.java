@@ -0,0 +1,55 @@
+package voicerecipeserver.recommend.evaluation;
+
+import voicerecipeserver.recommend.MarkDataset;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Baseline that ranks recipes by their average mark, like the top list anonymous users get. A recommender that
+ * doesn't beat it is not worth its cost.
+ */
+public class ItemAverageRecommender implements EvaluatedRecommender {
+    private Map<Long, Float> averages;
+    private long[] ranked;
+
+    @Override
+    public String name() {
+        return "Item average";
+    }
+
+    @Override
+    public void train(MarkDataset marks) {
+        Map<Long, double[]> sums = new HashMap<>();
+        for (int i = 0; i < marks.size(); ++i) {
+            double[] sum = sums.computeIfAbsent(marks.recipeIdAt(i), id -> new double[2]);
+            sum[0] += marks.markAt(i);
+            sum[1] += 1;
+        }
+        averages = new HashMap<>();
+        sums.forEach((recipeId, sum) -> averages.put(recipeId, (float) (sum[0] / sum[1])));
+        ranked = averages.keySet().stream()
+                .sorted(Comparator.comparing((Long recipeId) -> averages.get(recipeId)).reversed()
+                                .thenComparing(Comparator.naturalOrder()))
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    @Override
+    public float predict(long userId, long recipeId) {
+        return averages.getOrDefault(recipeId, Float.NaN);
+    }
+
+    @Override
+    public long[] recommend(long userId, int n) {
+        return Arrays.copyOf(ranked, Math.min(n, ranked.length));
+    }
+
+    @Override
+    public long memoryBytes() {
+        // boxed key and value with a hash map node, and the ranked array
+        return averages.size() * 64L + ranked.length * (long) Long.BYTES;
+    }
+}
@@ -0,0 +1,140 @@
+package voicerecipeserver.recommend.evaluation;
+
+import voicerecipeserver.recommend.MarkDataset;
+import voicerecipeserver.recommend.SlopeOneVariant;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Offline comparison of recommenders on a marks dataset with a held out part. For every recommender prints the
+ * prediction errors on the held out marks, precision and recall of the top k, scoring latency and model size.
+ * <p>
+ * Runs without the database: {@code ./gradlew evaluateRecommender -Pargs="csv=marks.csv k=10"}, without csv
+ * a dataset is generated. Arguments are key=value pairs, see {@link #main} for the defaults.
+ */
+public class RecommenderEvaluation {
+    private final MarkDataset train;
+    private final MarkDataset test;
+    private final int k;
+    private final float relevantMark;
+    private final Map<Long, Set<Long>> trainRecipes = new HashMap<>();
+    private final Map<Long, Set<Long>> relevantRecipes = new HashMap<>();
+
+    public RecommenderEvaluation(MarkDataset train, MarkDataset test, int k, float relevantMark) {
+        this.train = train;
+        this.test = test;
+        this.k = k;
+        this.relevantMark = relevantMark;
+        for (int i = 0; i < train.size(); ++i) {
+            trainRecipes.computeIfAbsent(train.userIdAt(i), id -> new HashSet<>()).add(train.recipeIdAt(i));
+        }
+        for (int i = 0; i < test.size(); ++i) {
+            if (test.markAt(i) >= relevantMark) {
+                relevantRecipes.computeIfAbsent(test.userIdAt(i), id -> new HashSet<>()).add(test.recipeIdAt(i));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "");
+        }
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        MarkDataset dataset = options.containsKey("csv")
+                ? MarkDataset.read(Path.of(options.get("csv")))
+                : MarkDataset.generateWithTastes(Integer.parseInt(options.getOrDefault("users", "5000")),
+                                                 Integer.parseInt(options.getOrDefault("recipes", "2000")),
+                                                 Integer.parseInt(options.getOrDefault("marks-per-user", "20")),
+                                                 seed);
+        MarkDataset[] split = dataset.split(Double.parseDouble(options.getOrDefault("holdout", "0.2")), seed);
+        RecommenderEvaluation evaluation = new RecommenderEvaluation(
+                split[0], split[1], Integer.parseInt(options.getOrDefault("k", "10")),
+                Float.parseFloat(options.getOrDefault("relevant-mark", "4")));
+
+        List<EvaluatedRecommender> recommenders = List.of(
+                new ItemAverageRecommender(),
+                new SlopeOneRecommender(SlopeOneVariant.WEIGHTED, 0),
+                new SlopeOneRecommender(SlopeOneVariant.WEIGHTED, 50),
+                new SlopeOneRecommender(SlopeOneVariant.BI_POLAR, 0),
+                new SlopeOneRecommender(SlopeOneVariant.BI_POLAR, 50));
+
+        System.out.printf("%d users, %d training marks, %d held out marks%n%n", dataset.getUsers(), split[0].size(),
+                          split[1].size());
+        System.out.printf("%-24s %8s %8s %9s %8s %8s %10s %10s %10s %10s%n", "recommender", "RMSE", "MAE",
+                          "coverage", "P@" + evaluation.k, "R@" + evaluation.k, "train ms", "p50 us", "p99 us",
+                          "memory MB");
+        for (EvaluatedRecommender recommender : recommenders) {
+            Result r = evaluation.evaluate(recommender);
+            System.out.printf("%-24s %8.4f %8.4f %8.1f%% %8.4f %8.4f %10d %10.1f %10.1f %10.1f%n", recommender.name(),
+                              r.rmse(), r.mae(), r.coverage() * 100, r.precision(), r.recall(), r.trainMillis(),
+                              r.p50Micros(), r.p99Micros(), r.memoryBytes() / 1048576.0);
+        }
+    }
+
+    public Result evaluate(EvaluatedRecommender recommender) {
+        long start = System.nanoTime();
+        recommender.train(train);
+        long trainMillis = (System.nanoTime() - start) / 1_000_000;
+
+        double squaredError = 0;
+        double absoluteError = 0;
+        int predicted = 0;
+        for (int i = 0; i < test.size(); ++i) {
+            float prediction = recommender.predict(test.userIdAt(i), test.recipeIdAt(i));
+            if (!Float.isNaN(prediction)) {
+                double error = prediction - test.markAt(i);
+                squaredError += error * error;
+                absoluteError += Math.abs(error);
+                ++predicted;
+            }
+        }
+
+        double precision = 0;
+        double recall = 0;
+        long[] latencies = new long[relevantRecipes.size()];
+        int users = 0;
+        for (Map.Entry<Long, Set<Long>> entry : relevantRecipes.entrySet()) {
+            Set<Long> rated = trainRecipes.getOrDefault(entry.getKey(), Set.of());
+            long scoringStart = System.nanoTime();
+            long[] recommended = recommender.recommend(entry.getKey(), k + rated.size());
+            latencies[users++] = System.nanoTime() - scoringStart;
+
+            int hits = 0;
+            int taken = 0;
+            for (int i = 0; i < recommended.length && taken < k; ++i) {
+                if (!rated.contains(recommended[i])) {
+                    ++taken;
+                    if (entry.getValue().contains(recommended[i])) {
+                        ++hits;
+                    }
+                }
+            }
+            precision += (double) hits / k;
+            recall += (double) hits / entry.getValue().size();
+        }
+        Arrays.sort(latencies);
+
+        return new Result(Math.sqrt(squaredError / Math.max(predicted, 1)), absoluteError / Math.max(predicted, 1),
+                          (double) predicted / Math.max(test.size(), 1), precision / Math.max(users, 1),
+                          recall / Math.max(users, 1), trainMillis, percentile(latencies, 0.5) / 1000.0,
+                          percentile(latencies, 0.99) / 1000.0, recommender.memoryBytes());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+
+    /**
+     * @param coverage share of the held out marks the recommender could predict, errors are over those only
+     */
+    public record Result(double rmse, double mae, double coverage, double precision, double recall, long trainMillis,
+                         double p50Micros, double p99Micros, long memoryBytes) {
+    }
+}
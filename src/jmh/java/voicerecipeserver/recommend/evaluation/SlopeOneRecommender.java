@@ -0,0 +1,41 @@
+package voicerecipeserver.recommend.evaluation;
+
+import voicerecipeserver.recommend.MarkDataset;
+import voicerecipeserver.recommend.SlopeOneModel;
+import voicerecipeserver.recommend.SlopeOneVariant;
+
+public class SlopeOneRecommender implements EvaluatedRecommender {
+    private final SlopeOneVariant variant;
+    private final int neighbors;
+    private SlopeOneModel model;
+
+    public SlopeOneRecommender(SlopeOneVariant variant, int neighbors) {
+        this.variant = variant;
+        this.neighbors = neighbors;
+    }
+
+    @Override
+    public String name() {
+        return "SlopeOne " + variant + (neighbors > 0 ? " K=" + neighbors : "");
+    }
+
+    @Override
+    public void train(MarkDataset marks) {
+        model = marks.toBuilder(variant, neighbors).build();
+    }
+
+    @Override
+    public float predict(long userId, long recipeId) {
+        return model.predict(model.getUserMarks(userId), recipeId);
+    }
+
+    @Override
+    public long[] recommend(long userId, int n) {
+        return model.recommend(model.getUserMarks(userId), n);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return model.memoryBytes();
+    }
+}
@@ -0,0 +1,118 @@
+package voicerecipeserver.respository;
+
+import org.openjdk.jmh.annotations.*;
+import voicerecipeserver.utils.SearchUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recipe search by name: the former ILIKE union against the full-text query over the GIN index. Needs a Postgres
+ * database from the DATASOURCE_URL, DATASOURCE_USERNAME and DATASOURCE_PASSWORD variables, the recipes are generated
+ * into a temporary table with the same search column and index as the recipes table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RecipeSearchBenchmark {
+    private static final String ILIKE_QUERY = """
+                (
+                    SELECT * FROM bench_recipes
+                    WHERE name ILIKE ? || '%'
+                    ORDER BY name
+                )
+                UNION
+                (
+                    SELECT * FROM bench_recipes
+                    WHERE name ILIKE '% ' || ? || '%'
+                    ORDER BY name
+                )
+                LIMIT 25 OFFSET 0
+            """;
+    private static final String FULL_TEXT_QUERY = """
+                SELECT * FROM bench_recipes
+                WHERE search_vector @@ to_tsquery('russian', ?)
+                ORDER BY ts_rank(search_vector, to_tsquery('russian', ?)) DESC, name, id
+                LIMIT 25 OFFSET 0
+            """;
+
+    @Param({"100000", "1000000"})
+    private int recipes;
+    @Param({"суп", "курица с рис", "пирог"})
+    private String term;
+
+    private Connection connection;
+    private PreparedStatement ilike;
+    private PreparedStatement fullText;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(System.getenv("DATASOURCE_URL"), System.getenv("DATASOURCE_USERNAME"),
+                                                 System.getenv("DATASOURCE_PASSWORD"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                        CREATE TEMPORARY TABLE bench_recipes
+                        (
+                            id bigint GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+                            name varchar(128) NOT NULL,
+                            search_vector tsvector
+                                GENERATED ALWAYS AS (to_tsvector('russian', coalesce(name, ''))) STORED
+                        )
+                    """);
+            statement.execute("""
+                        INSERT INTO bench_recipes (name)
+                        SELECT dish[1 + (random() * (array_length(dish, 1) - 1))::int] || ' ' ||
+                               word[1 + (random() * (array_length(word, 1) - 1))::int] || ' ' ||
+                               word[1 + (random() * (array_length(word, 1) - 1))::int]
+                        FROM generate_series(1, %d),
+                             (SELECT ARRAY ['Суп', 'Салат', 'Пирог', 'Курица', 'Рагу', 'Каша', 'Паста', 'Запеканка',
+                                            'Борщ', 'Омлет', 'Плов', 'Блины'] AS dish,
+                                     ARRAY ['с', 'из', 'курицей', 'грибами', 'сыром', 'рисом', 'овощами', 'яблоками',
+                                            'по-домашнему', 'острый', 'летний', 'быстрый', 'томатный', 'сливочный',
+                                            'картофелем', 'говядиной', 'рыбой', 'тыквой', 'шпинатом', 'чесноком']
+                                         AS word) words
+                    """.formatted(recipes));
+            statement.execute("CREATE INDEX ON bench_recipes USING GIN (search_vector)");
+            statement.execute("ANALYZE bench_recipes");
+        }
+        ilike = connection.prepareStatement(ILIKE_QUERY);
+        ilike.setString(1, term);
+        ilike.setString(2, term);
+        fullText = connection.prepareStatement(FULL_TEXT_QUERY);
+        String query = SearchUtils.toPrefixTsQuery(term);
+        fullText.setString(1, query);
+        fullText.setString(2, query);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int ilikeUnion() throws SQLException {
+        return count(ilike);
+    }
+
+    @Benchmark
+    public int fullText() throws SQLException {
+        return count(fullText);
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ++rows;
+            }
+        }
+        return rows;
+    }
+}
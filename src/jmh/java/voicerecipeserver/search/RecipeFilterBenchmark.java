@@ -0,0 +1,61 @@
+package voicerecipeserver.search;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Faceted filtering of a page of recipes with the counts of every facet, what a /recipes/filter request does under
+ * the read lock. The target is under 50 ms at 100 000 recipes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RecipeFilterBenchmark {
+    private static final int CATEGORIES = 50;
+
+    @Param({"100000", "1000000"})
+    private int recipes;
+    /**
+     * none: counts only, ranges: two restricted facets, category: a range within a category
+     */
+    @Param({"none", "ranges", "category"})
+    private String filter;
+    @Param({"25"})
+    private int limit;
+
+    private RecipeAttributeStore store;
+    private RecipeFilter recipeFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        store = new RecipeAttributeStore();
+        for (long id = 1; id <= recipes; ++id) {
+            store.set(id, RecipeFacet.COOK_TIME_MINS, 5 + random.nextInt(175));
+            store.set(id, RecipeFacet.PREP_TIME_MINS, random.nextInt(60));
+            // the values the authors leave empty are unknown
+            store.set(id, RecipeFacet.KILOCALORIES, random.nextInt(10) == 0 ? Float.NaN : 50 + random.nextInt(1150));
+            store.set(id, RecipeFacet.SERVINGS, 1 + random.nextInt(10));
+            store.set(id, RecipeFacet.AVG_MARK, random.nextInt(3) == 0 ? Float.NaN : 1 + 4 * random.nextFloat());
+            for (int i = random.nextInt(3); i >= 0; --i) {
+                store.addToCategory(id, 1 + random.nextInt(CATEGORIES));
+            }
+        }
+        recipeFilter = switch (filter) {
+            case "none" -> new RecipeFilter();
+            case "ranges" -> new RecipeFilter().range(RecipeFacet.COOK_TIME_MINS, null, 30)
+                    .range(RecipeFacet.KILOCALORIES, 200, 600);
+            case "category" -> new RecipeFilter().range(RecipeFacet.COOK_TIME_MINS, null, 60).category(7L);
+            default -> throw new IllegalArgumentException(filter);
+        };
+    }
+
+    @Benchmark
+    public RecipeAttributeStore.FilterResult filter() {
+        return store.filter(recipeFilter, Long.MAX_VALUE, 0, limit);
+    }
+}
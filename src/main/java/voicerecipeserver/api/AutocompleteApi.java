@@ -0,0 +1,22 @@
+package voicerecipeserver.api;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import voicerecipeserver.config.Constants;
+import voicerecipeserver.model.dto.AutocompleteDto;
+
+@RequestMapping(Constants.BASE_API_PATH + "/autocomplete")
+@Validated
+public interface AutocompleteApi {
+
+    @GetMapping
+    ResponseEntity<AutocompleteDto> autocomplete(
+            @Size(max = 128) @NotBlank(message = "query must be not blank") @RequestParam("query") String query,
+            @RequestParam(value = "limit", required = false) @Positive(message = "limit must be positive") Integer limit);
+}
@@ -22,7 +22,8 @@ public interface CategoryApi {
     @GetMapping(value = "/{id}")
     ResponseEntity<List<RecipeDto>> getCategoryRecipes(@PathVariable(value = "id") Long id,
                                                        @RequestParam(value = "limit", required = false) @PositiveOrZero Integer limit,
-                                                       @RequestParam(value = "page", required = false) @PositiveOrZero Integer page) throws
+                                                       @RequestParam(value = "page", required = false) @PositiveOrZero Integer page,
+                                                       @RequestParam(value = "cursor", required = false) String cursor) throws
             NotFoundException, AuthException, BadRequestException;
 
     @DeleteMapping(value = "/{id}")
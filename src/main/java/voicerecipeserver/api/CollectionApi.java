@@ -24,7 +24,9 @@ public interface CollectionApi {
     ResponseEntity<List<CollectionDto>> getUserCollections(
             @RequestParam(value = "login", required = false) String login,
             @RequestParam(value = "limit", required = false) @PositiveOrZero Integer limit,
-            @RequestParam(value = "page", required = false) @PositiveOrZero Integer page) throws NotFoundException;
+            @RequestParam(value = "page", required = false) @PositiveOrZero Integer page,
+            @RequestParam(value = "cursor", required = false) String cursor) throws NotFoundException,
+            BadRequestException;
 
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
     @PostMapping
@@ -66,12 +68,14 @@ public interface CollectionApi {
     @GetMapping(value = "/{id}")
     ResponseEntity<List<RecipeDto>> getRecipesFromCollection(@PathVariable(value = "id") Long id,
                                                              @RequestParam(value = "limit", required = false) @PositiveOrZero Integer limit,
-                                                             @RequestParam(value = "page", required = false) @PositiveOrZero Integer page) throws
+                                                             @RequestParam(value = "page", required = false) @PositiveOrZero Integer page,
+                                                             @RequestParam(value = "cursor", required = false) String cursor) throws
             NotFoundException, AuthException, BadRequestException;
 
     @GetMapping(value = "/search/{name}")
     ResponseEntity<List<CollectionDto>> getCollectionsByName(@PathVariable(value = "name") String name,
                                                              @RequestParam(value = "limit", required = false) @PositiveOrZero Integer limit,
-                                                             @RequestParam(value = "page", required = false) @PositiveOrZero Integer page) throws
+                                                             @RequestParam(value = "page", required = false) @PositiveOrZero Integer page,
+                                                             @RequestParam(value = "cursor", required = false) String cursor) throws
             NotFoundException, AuthException, BadRequestException;
 }
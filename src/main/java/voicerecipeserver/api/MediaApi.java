@@ -1,27 +1,53 @@
 package voicerecipeserver.api;
 
 import jakarta.validation.Valid;
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import voicerecipeserver.config.Constants;
 import voicerecipeserver.model.dto.IdDto;
+import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.InvalidMediaTypeException;
 import voicerecipeserver.model.exceptions.NotFoundException;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @Valid
 @RequestMapping(Constants.BASE_API_PATH + "/media")
 public interface MediaApi {
+    /**
+     * Streams the content of the media. Range requests are served with 206 Partial Content, several ranges as
+     * multipart/byteranges. A range is ignored if If-Range doesn't match the ETag of the content. Media never change,
+     * the response may be cached forever and a conditional request is answered with 304 Not Modified.
+     * <p>
+     * An image is downscaled to the size: small, medium or large. Until the downscaled image is ready the original one
+     * is sent, such a response must be revalidated.
+     */
     @GetMapping(value = "/{id}")
-    ResponseEntity<byte[]> mediaGet(@PathVariable("id") @PositiveOrZero Long id) throws NotFoundException;
+    ResponseEntity<Resource> mediaGet(
+            @PathVariable("id") @PositiveOrZero Long id,
+            @RequestParam(value = "size", required = false) String size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange)
+            throws NotFoundException, BadRequestException, IOException;
 
 
+    /**
+     * Stores the body of the request, which is read as a stream and is never held in memory as a whole. The media type
+     * and the declared length are checked before the body is read, a body larger than media.upload.max-size is
+     * rejected with 413 Payload Too Large.
+     */
     @PreAuthorize("hasAuthority('USER') or hasAuthority('ADMIN')")
     @PostMapping
     ResponseEntity<IdDto> mediaPost(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentTypeHeader,
-                                    @RequestBody @NotNull byte[] data) throws InvalidMediaTypeException;
+                                    @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false)
+                                    Long contentLength,
+                                    InputStream data) throws InvalidMediaTypeException, BadRequestException,
+            IOException;
 
 }
@@ -40,7 +40,9 @@ public interface ProfileApi {
     ResponseEntity<List<UserProfileDto>> getProfilesByPartUid(
             @Size(max = 128) @NotBlank(message = "name must be not blank") @PathVariable("login") String login,
             @RequestParam(value = "limit", required = false) @Positive(message = "limit must be positive") Integer limit,
-            @RequestParam(value = "page", required = false) @PositiveOrZero Integer page) throws NotFoundException;
+            @RequestParam(value = "page", required = false) @PositiveOrZero Integer page,
+            @RequestParam(value = "cursor", required = false) String cursor) throws NotFoundException,
+            BadRequestException;
 
     @GetMapping("/{login}")
     ResponseEntity<UserProfileDto> getProfileByUid(
@@ -10,6 +10,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import voicerecipeserver.config.Constants;
 import voicerecipeserver.model.dto.CategoryDto;
+import voicerecipeserver.model.dto.FilteredRecipesDto;
 import voicerecipeserver.model.dto.IdDto;
 import voicerecipeserver.model.dto.RecipeDto;
 import voicerecipeserver.model.exceptions.AuthException;
@@ -47,18 +48,59 @@ public interface RecipeApi {
     ResponseEntity<List<RecipeDto>> getRecipesByName(
             @Size(max = 128) @NotBlank(message = "name must be not blank") @PathVariable("name") String name,
             @RequestParam(value = "limit", required = false) @Positive(message = "limit must be positive") Integer limit,
-            @RequestParam(value = "page", required = false) @PositiveOrZero Integer page) throws NotFoundException,
-            AuthException;
+            @RequestParam(value = "page", required = false) @PositiveOrZero Integer page,
+            @RequestParam(value = "cursor", required = false) String cursor) throws NotFoundException,
+            AuthException, BadRequestException;
+
+    /**
+     * Recipes with the given ingredients, the ones with the fewest missing ingredients first
+     *
+     * @param all true to find only the recipes with every one of the ingredients
+     */
+    @GetMapping(value = "/by-ingredients")
+    ResponseEntity<List<RecipeDto>> getRecipesByIngredients(
+            @RequestParam(value = "ingredients") @Size(min = 1, max = 64) List<String> ingredients,
+            @RequestParam(value = "all", required = false) Boolean all,
+            @RequestParam(value = "limit", required = false) @Positive(message = "limit must be positive") Integer limit,
+            @RequestParam(value = "page", required = false) @PositiveOrZero Integer page);
+
+    /**
+     * Recipes with the attributes in the given ranges, both bounds inclusive, the newest first. The response also has
+     * the number of recipes in every bucket of every attribute and in every category, counted with all the filters
+     * except the attribute's own.
+     */
+    @GetMapping(value = "/filter")
+    ResponseEntity<FilteredRecipesDto> filterRecipes(
+            @RequestParam(value = "cook_time_min", required = false) @PositiveOrZero Integer cookTimeMin,
+            @RequestParam(value = "cook_time_max", required = false) @PositiveOrZero Integer cookTimeMax,
+            @RequestParam(value = "prep_time_min", required = false) @PositiveOrZero Integer prepTimeMin,
+            @RequestParam(value = "prep_time_max", required = false) @PositiveOrZero Integer prepTimeMax,
+            @RequestParam(value = "kilocalories_min", required = false) @PositiveOrZero Double kilocaloriesMin,
+            @RequestParam(value = "kilocalories_max", required = false) @PositiveOrZero Double kilocaloriesMax,
+            @RequestParam(value = "servings_min", required = false) @PositiveOrZero Integer servingsMin,
+            @RequestParam(value = "servings_max", required = false) @PositiveOrZero Integer servingsMax,
+            @RequestParam(value = "mark_min", required = false) @PositiveOrZero Double markMin,
+            @RequestParam(value = "mark_max", required = false) @PositiveOrZero Double markMax,
+            @RequestParam(value = "category", required = false) @PositiveOrZero Long categoryId,
+            @RequestParam(value = "limit", required = false) @Positive(message = "limit must be positive") Integer limit,
+            @RequestParam(value = "page", required = false) @PositiveOrZero Integer page,
+            @RequestParam(value = "cursor", required = false) String cursor) throws BadRequestException;
 
     @GetMapping(value = "/{id}/categories")
     ResponseEntity<List<CategoryDto>> getCategoriesByRecipeId(
             @PathVariable("id") @PositiveOrZero(message = "recipe id must be not negative") Long id) throws
             NotFoundException, BadRequestException;
 
+    @GetMapping(value = "/{id}/similar")
+    ResponseEntity<List<RecipeDto>> getSimilarRecipes(
+            @PathVariable("id") @PositiveOrZero(message = "recipe id must be not negative") Long id,
+            @RequestParam(value = "limit", required = false) @Positive(message = "limit must be positive") Integer limit)
+            throws NotFoundException;
 
     @GetMapping
     ResponseEntity<List<RecipeDto>> getRecipesRecommendations(
             @RequestParam(value = "limit", required = false) @Positive Integer limit,
-            @RequestParam(value = "page", required = false) @PositiveOrZero Integer page) throws NotFoundException,
-            AuthException;
+            @RequestParam(value = "page", required = false) @PositiveOrZero Integer page,
+            @RequestParam(value = "category", required = false) @PositiveOrZero Long categoryId) throws
+            NotFoundException, AuthException;
 }
@@ -4,6 +4,7 @@ public class Constants {
     public static final String API_VERSION = "1";
     public static final String BASE_API_PATH = "/api/v" + API_VERSION;
     public static final int MAX_ITEMS_PER_PAGE = 10;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     public static final String LOGIN_PATTERN = "^[\\w-]+$";
     public static final String PASSWORD_PATTERN = "^(?=.*[0-9])(?=.*[^0-9\\s]).*$";
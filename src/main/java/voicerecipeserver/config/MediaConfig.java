@@ -0,0 +1,41 @@
+package voicerecipeserver.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class MediaConfig {
+    @Value("${media.variants.threads:2}")
+    private int threads;
+
+    @Value("${media.variants.queue-size:100}")
+    private int queueSize;
+
+    /**
+     * Executor of the image resizing. Decoded images take a lot of memory, so few images are resized at once, and
+     * the queue is bounded, an image which doesn't fit is resized on demand later.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService mediaVariantsExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "media-variants-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                                             new ArrayBlockingQueue<>(queueSize), threadFactory,
+                                                             new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,42 @@
+package voicerecipeserver.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class SearchConfig {
+    @Value("${search.executor.threads:8}")
+    private int threads;
+
+    @Value("${search.executor.queue-size:64}")
+    private int queueSize;
+
+    /**
+     * Executor of the sub-queries of the unified search. Both the threads and the queue are bounded, a sub-query which
+     * doesn't fit is rejected and its source is left out of the response. The security context of the request is
+     * passed to the sub-queries.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService searchExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "search-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                                             new ArrayBlockingQueue<>(queueSize), threadFactory,
+                                                             new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return new DelegatingSecurityContextExecutorService(executor);
+    }
+}
@@ -0,0 +1,25 @@
+package voicerecipeserver.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.RestController;
+import voicerecipeserver.api.AutocompleteApi;
+import voicerecipeserver.model.dto.AutocompleteDto;
+import voicerecipeserver.services.AutocompleteService;
+
+@CrossOrigin(maxAge = 1440)
+@RestController
+public class AutocompleteApiController implements AutocompleteApi {
+    private final AutocompleteService autocompleteService;
+
+    @Autowired
+    public AutocompleteApiController(AutocompleteService autocompleteService) {
+        this.autocompleteService = autocompleteService;
+    }
+
+    @Override
+    public ResponseEntity<AutocompleteDto> autocomplete(String query, Integer limit) {
+        return autocompleteService.autocomplete(query, limit);
+    }
+}
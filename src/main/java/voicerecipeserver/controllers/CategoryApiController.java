@@ -8,6 +8,7 @@ import voicerecipeserver.api.CategoryApi;
 import voicerecipeserver.model.dto.CategoryDto;
 import voicerecipeserver.model.dto.RecipeDto;
 import voicerecipeserver.model.exceptions.AuthException;
+import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.NotFoundException;
 import voicerecipeserver.security.service.impl.AuthServiceCommon;
 import voicerecipeserver.services.CategoryService;
@@ -30,8 +31,9 @@ public class CategoryApiController implements CategoryApi {
     }
 
     @Override
-    public ResponseEntity<List<RecipeDto>> getCategoryRecipes(Long id, Integer limit, Integer page)  {
-       return service.getRecipesFromCategory(id, limit, page);
+    public ResponseEntity<List<RecipeDto>> getCategoryRecipes(Long id, Integer limit, Integer page, String cursor) throws
+            BadRequestException {
+       return service.getRecipesFromCategory(id, limit, page, cursor);
     }
 
     @Override
@@ -11,6 +11,7 @@ import voicerecipeserver.model.dto.CollectionDto;
 import voicerecipeserver.model.dto.IdDto;
 import voicerecipeserver.model.dto.RecipeDto;
 import voicerecipeserver.model.exceptions.AuthException;
+import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.NotFoundException;
 import voicerecipeserver.services.CollectionService;
 
@@ -29,8 +30,10 @@ public class CollectionApiController implements CollectionApi {
 
 
     @Override
-    public ResponseEntity<List<CollectionDto>> getUserCollections(String login, Integer limit, Integer page) throws NotFoundException {
-        return service.getCollections(login, limit, page);
+    public ResponseEntity<List<CollectionDto>> getUserCollections(String login, Integer limit, Integer page,
+                                                                  String cursor) throws NotFoundException,
+            BadRequestException {
+        return service.getCollections(login, limit, page, cursor);
     }
 
     @Override
@@ -74,14 +77,16 @@ public class CollectionApiController implements CollectionApi {
     }
 
     @Override
-    public ResponseEntity<List<RecipeDto>> getRecipesFromCollection(Long id, Integer limit, Integer page) throws NotFoundException {
-        return service.getCollectionRecipesById(id, limit, page);
+    public ResponseEntity<List<RecipeDto>> getRecipesFromCollection(Long id, Integer limit, Integer page,
+                                                                    String cursor) throws NotFoundException,
+            BadRequestException {
+        return service.getCollectionRecipesById(id, limit, page, cursor);
     }
 
     @Override
     public ResponseEntity<List<CollectionDto>> getCollectionsByName(String name,
-                                                                    Integer limit, Integer page) throws
-            NotFoundException {
-        return service.getCollectionsByName(name, limit, page);
+                                                                    Integer limit, Integer page, String cursor) throws
+            NotFoundException, BadRequestException {
+        return service.getCollectionsByName(name, limit, page, cursor);
     }
 }
@@ -1,6 +1,7 @@
 package voicerecipeserver.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import voicerecipeserver.api.MediaApi;
@@ -10,12 +11,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import voicerecipeserver.model.entities.Media;
 import voicerecipeserver.model.entities.MediaType;
+import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.InvalidMediaTypeException;
 import voicerecipeserver.model.exceptions.NotFoundException;
 import voicerecipeserver.respository.MediaRepository;
 import voicerecipeserver.respository.MediaTypeRepository;
 import voicerecipeserver.services.MediaService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Optional;
 
 @RestController
@@ -31,14 +35,17 @@ public class MediaApiController implements MediaApi {
 
 
     @Override
-    public ResponseEntity<byte[]> mediaGet(Long id) throws NotFoundException {
-        return service.getMediaById(id);
+    public ResponseEntity<Resource> mediaGet(Long id, String size, String ifNoneMatch, String ifModifiedSince,
+                                             String ifRange) throws NotFoundException, BadRequestException,
+            IOException {
+        return service.getMediaById(id, size, ifNoneMatch, ifModifiedSince, ifRange);
     }
 
 
     @Override
-    public ResponseEntity<IdDto> mediaPost(String contentTypeHeader, byte[] data) throws InvalidMediaTypeException {
-        return service.addMedia(contentTypeHeader,data);
+    public ResponseEntity<IdDto> mediaPost(String contentTypeHeader, Long contentLength, InputStream data) throws
+            InvalidMediaTypeException, BadRequestException, IOException {
+        return service.addMedia(contentTypeHeader, contentLength, data);
     }
 
 
@@ -42,9 +42,10 @@ public class ProfileApiController implements ProfileApi {
     }
 
     @Override
-    public ResponseEntity<List<UserProfileDto>> getProfilesByPartUid(String login, Integer limit, Integer page) throws
-            NotFoundException {
-        return userService.getUserProfilesByPartLogin(login, limit, page);
+    public ResponseEntity<List<UserProfileDto>> getProfilesByPartUid(String login, Integer limit, Integer page,
+                                                                     String cursor) throws NotFoundException,
+            BadRequestException {
+        return userService.getUserProfilesByPartLogin(login, limit, page, cursor);
     }
 
     @Override
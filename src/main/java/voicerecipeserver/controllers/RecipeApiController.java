@@ -6,11 +6,14 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.RestController;
 import voicerecipeserver.api.RecipeApi;
 import voicerecipeserver.model.dto.CategoryDto;
+import voicerecipeserver.model.dto.FilteredRecipesDto;
 import voicerecipeserver.model.dto.IdDto;
 import voicerecipeserver.model.dto.RecipeDto;
 import voicerecipeserver.model.exceptions.AuthException;
 import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.NotFoundException;
+import voicerecipeserver.search.RecipeFacet;
+import voicerecipeserver.search.RecipeFilter;
 import voicerecipeserver.services.RecipeService;
 
 import java.util.List;
@@ -50,9 +53,32 @@ public class RecipeApiController implements RecipeApi {
         return recipeService.deleteRecipe(id);
     }
 
-    public ResponseEntity<List<RecipeDto>> getRecipesByName(String name, Integer limit, Integer page) throws NotFoundException,
-            AuthException {
-        return recipeService.searchRecipesByName(name, limit, page);
+    public ResponseEntity<List<RecipeDto>> getRecipesByName(String name, Integer limit, Integer page, String cursor) throws
+            NotFoundException, AuthException, BadRequestException {
+        return recipeService.searchRecipesByName(name, limit, page, cursor);
+    }
+
+    @Override
+    public ResponseEntity<List<RecipeDto>> getRecipesByIngredients(List<String> ingredients, Boolean all, Integer limit,
+                                                                   Integer page) {
+        return recipeService.getRecipesByIngredients(ingredients, all, limit, page);
+    }
+
+    @Override
+    public ResponseEntity<FilteredRecipesDto> filterRecipes(Integer cookTimeMin, Integer cookTimeMax,
+                                                            Integer prepTimeMin, Integer prepTimeMax,
+                                                            Double kilocaloriesMin, Double kilocaloriesMax,
+                                                            Integer servingsMin, Integer servingsMax, Double markMin,
+                                                            Double markMax, Long categoryId, Integer limit,
+                                                            Integer page, String cursor) throws BadRequestException {
+        RecipeFilter filter = new RecipeFilter()
+                .range(RecipeFacet.COOK_TIME_MINS, cookTimeMin, cookTimeMax)
+                .range(RecipeFacet.PREP_TIME_MINS, prepTimeMin, prepTimeMax)
+                .range(RecipeFacet.KILOCALORIES, kilocaloriesMin, kilocaloriesMax)
+                .range(RecipeFacet.SERVINGS, servingsMin, servingsMax)
+                .range(RecipeFacet.AVG_MARK, markMin, markMax)
+                .category(categoryId);
+        return recipeService.filterRecipes(filter, limit, page, cursor);
     }
 
     @Override
@@ -61,8 +87,13 @@ public class RecipeApiController implements RecipeApi {
     }
 
     @Override
-    public ResponseEntity<List<RecipeDto>> getRecipesRecommendations(Integer limit, Integer page) throws
-            NotFoundException, AuthException {
-        return recipeService.getRecommendations(limit, page);
+    public ResponseEntity<List<RecipeDto>> getSimilarRecipes(Long id, Integer limit) throws NotFoundException {
+        return recipeService.getSimilarRecipes(id, limit);
+    }
+
+    @Override
+    public ResponseEntity<List<RecipeDto>> getRecipesRecommendations(Integer limit, Integer page, Long categoryId)
+            throws NotFoundException, AuthException {
+        return recipeService.getRecommendations(limit, page, categoryId);
     }
 }
@@ -91,6 +91,21 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
 
 
+    @ExceptionHandler({MediaTooLargeException.class})
+    protected ResponseEntity<Object> handleMediaTooLarge(Exception e) {
+        return new ResponseEntity<>(new Error().code(413).message(e.getMessage()), HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    /**
+     * Only failures of the storage are answered, other IOExceptions are mostly clients gone in the middle of a
+     * download, whose response is already committed, they are left to the container
+     */
+    @ExceptionHandler({MediaStorageException.class})
+    protected ResponseEntity<Object> handleMediaStorageException(MediaStorageException e) {
+        logger.error("Media storage failed", e);
+        return new ResponseEntity<>(new Error().code(500).message("Media storage failed"), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
     @ExceptionHandler({ExpiredJwtException.class})
     protected ResponseEntity<Object> handleExpiredJwtException(ExpiredJwtException e) {
         String message = e.getMessage();
@@ -0,0 +1,25 @@
+package voicerecipeserver.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.RestController;
+import voicerecipeserver.api.SearchApi;
+import voicerecipeserver.model.dto.SearchResultsDto;
+import voicerecipeserver.services.SearchService;
+
+@CrossOrigin(maxAge = 1440)
+@RestController
+public class SearchApiController implements SearchApi {
+    private final SearchService searchService;
+
+    @Autowired
+    public SearchApiController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @Override
+    public ResponseEntity<SearchResultsDto> search(String query, Integer limit) {
+        return searchService.search(query, limit);
+    }
+}
@@ -2,11 +2,11 @@ package voicerecipeserver.model.entities;
 
 
 import jakarta.persistence.*;
-import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
 
 import java.sql.Types;
+import java.time.Instant;
 
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,11 +26,24 @@ public class Media {
     @ToString.Exclude
     private MediaType mediaType;
 
+    /**
+     * Content of the media stored before {@link voicerecipeserver.storage.MediaStorage}, null once it is moved there
+     */
     @Column(name = "file_data", columnDefinition = "BLOB")
     @JdbcTypeCode(Types.VARBINARY)
-    @NotNull
     private byte[] fileData;
 
+    /**
+     * Address of the content in {@link voicerecipeserver.storage.MediaStorage}, null while it is in file_data
+     */
+    @Column(name = "content_hash")
+    private String contentHash;
+
+    private Long size;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
     @OneToOne(mappedBy = "media", orphanRemoval = true)
     @ToString.Exclude
     private Recipe recipe;
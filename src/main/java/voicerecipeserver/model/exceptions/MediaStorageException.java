@@ -0,0 +1,13 @@
+package voicerecipeserver.model.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Failure of the media storage itself, told apart from the failures of the client's connection, which are
+ * IOExceptions too
+ */
+public class MediaStorageException extends IOException {
+    public MediaStorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package voicerecipeserver.model.exceptions;
+
+import java.io.IOException;
+
+/**
+ * An IOException, as it is thrown while the upload is being read
+ */
+public class MediaTooLargeException extends IOException {
+    public MediaTooLargeException(long maxSize) {
+        super("Media is larger than " + maxSize + " bytes");
+    }
+}
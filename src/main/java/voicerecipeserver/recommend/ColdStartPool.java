@@ -0,0 +1,89 @@
+package voicerecipeserver.recommend;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import voicerecipeserver.respository.RecipeRepository;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ids of the top rated and of the unrated recipes for users without recommendations. Both lists are reloaded in the
+ * background, so a page is a slice of the top list and a padding is a sample of the unrated list, without sorting
+ * the recipes table per request.
+ */
+@Component
+public class ColdStartPool {
+    private final RecipeRepository recipeRepository;
+    private final int topSize;
+    private final int unratedSize;
+    private volatile Pool pool = new Pool(new long[0], new long[0]);
+
+    /**
+     * @param topSize     number of the top rated recipes kept, pages beyond it consist of the unrated ones only
+     * @param unratedSize number of the newest unrated recipes the padding is sampled from
+     */
+    @Autowired
+    public ColdStartPool(RecipeRepository recipeRepository,
+                         @Value("${recommend.cold-start.top-size:1000}") int topSize,
+                         @Value("${recommend.cold-start.unrated-size:10000}") int unratedSize) {
+        this.recipeRepository = recipeRepository;
+        this.topSize = topSize;
+        this.unratedSize = unratedSize;
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${recommend.cold-start.refresh-ms:60000}",
+            fixedDelayString = "${recommend.cold-start.refresh-ms:60000}")
+    public void refresh() {
+        long[] top = recipeRepository.findTopRatedIds(topSize).stream().mapToLong(Long::longValue).toArray();
+        long[] unrated = recipeRepository.findUnratedIds(unratedSize).stream().mapToLong(Long::longValue).toArray();
+        pool = new Pool(top, unrated);
+    }
+
+    /**
+     * @return ids of the top rated recipes of the page, possibly empty
+     */
+    public long[] getTopPage(int limit, int page) {
+        long[] top = pool.top;
+        long from = Math.min((long) page * limit, top.length);
+        long to = Math.min(from + limit, top.length);
+        return Arrays.copyOfRange(top, (int) from, (int) to);
+    }
+
+    /**
+     * @return up to count distinct ids of unrated recipes in random order
+     */
+    public long[] sampleUnrated(int count) {
+        long[] unrated = pool.unrated;
+        int n = unrated.length;
+        int k = Math.min(count, n);
+        long[] sample = new long[k];
+        // Floyd's algorithm, O(k) no matter how large the pool is
+        Set<Integer> chosen = new HashSet<>(k * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = 0;
+        for (int j = n - k; j < n; ++j) {
+            int t = random.nextInt(j + 1);
+            int index = chosen.add(t) ? t : j;
+            chosen.add(index);
+            sample[i++] = unrated[index];
+        }
+        // the order of the picks is not uniform, only the chosen set is
+        for (int j = k - 1; j > 0; --j) {
+            int t = random.nextInt(j + 1);
+            long tmp = sample[j];
+            sample[j] = sample[t];
+            sample[t] = tmp;
+        }
+        return sample;
+    }
+
+    private record Pool(long[] top, long[] unrated) {
+    }
+}
@@ -0,0 +1,105 @@
+package voicerecipeserver.recommend;
+
+import java.util.Arrays;
+
+/**
+ * {@link ItemMatrix} stored as two flat n*n arrays. Lookups are single array reads, so it is used for small
+ * catalogs where n^2 cells still fit in a few megabytes.
+ */
+public class DenseItemMatrix implements ItemMatrix {
+    private int capacity;
+    private float[] diffSums;
+    private int[] counts;
+
+    public DenseItemMatrix(int capacity) {
+        this.capacity = Math.max(capacity, 16);
+        this.diffSums = new float[this.capacity * this.capacity];
+        this.counts = new int[this.capacity * this.capacity];
+    }
+
+    @Override
+    public ItemMatrix ensureCapacity(int items) {
+        if (items <= capacity) {
+            return this;
+        }
+        if (items > DENSE_MAX_ITEMS) {
+            return toSparse(items);
+        }
+        int newCapacity = Math.min(Math.max(capacity * 2, items), DENSE_MAX_ITEMS);
+        float[] newDiffSums = new float[newCapacity * newCapacity];
+        int[] newCounts = new int[newCapacity * newCapacity];
+        for (int row = 0; row < capacity; ++row) {
+            System.arraycopy(diffSums, row * capacity, newDiffSums, row * newCapacity, capacity);
+            System.arraycopy(counts, row * capacity, newCounts, row * newCapacity, capacity);
+        }
+        capacity = newCapacity;
+        diffSums = newDiffSums;
+        counts = newCounts;
+        return this;
+    }
+
+    @Override
+    public void add(int row, int col, float diffDelta, int countDelta) {
+        int cell = row * capacity + col;
+        counts[cell] += countDelta;
+        diffSums[cell] = counts[cell] == 0 ? 0 : diffSums[cell] + diffDelta;
+    }
+
+    @Override
+    public void setRow(int row, int[] cols, float[] diffSums, int[] counts, int length) {
+        int offset = row * capacity;
+        Arrays.fill(this.diffSums, offset, offset + capacity, 0);
+        Arrays.fill(this.counts, offset, offset + capacity, 0);
+        for (int i = 0; i < length; ++i) {
+            this.diffSums[offset + cols[i]] = diffSums[i];
+            this.counts[offset + cols[i]] = counts[i];
+        }
+    }
+
+    /**
+     * @throws UnsupportedOperationException a dense matrix has no row size limit
+     */
+    @Override
+    public void setPruned(int row, int[] cols, int length) {
+        throw new UnsupportedOperationException("A dense matrix has no row size limit");
+    }
+
+    @Override
+    public int[] getPruned(int row) {
+        return new int[0];
+    }
+
+    @Override
+    public float diffSum(int row, int col) {
+        return diffSums[row * capacity + col];
+    }
+
+    @Override
+    public int count(int row, int col) {
+        return counts[row * capacity + col];
+    }
+
+    @Override
+    public void forEachInRow(int row, CellVisitor visitor) {
+        int offset = row * capacity;
+        for (int col = 0; col < capacity; ++col) {
+            if (counts[offset + col] != 0) {
+                visitor.visit(col, diffSums[offset + col], counts[offset + col]);
+            }
+        }
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) diffSums.length * Float.BYTES + (long) counts.length * Integer.BYTES;
+    }
+
+    private SparseItemMatrix toSparse(int items) {
+        SparseItemMatrix sparse = new SparseItemMatrix(items);
+        for (int row = 0; row < capacity; ++row) {
+            int sparseRow = row;
+            forEachInRow(row, (col, diffSum, count) -> sparse.add(sparseRow, col, diffSum, count));
+        }
+        return sparse;
+    }
+}
@@ -0,0 +1,68 @@
+package voicerecipeserver.recommend;
+
+/**
+ * Item-item matrix of the Slope One model indexed by {@link RecipeIndex} indexes. A cell holds the sum of mark
+ * differences {@code mark(row) - mark(col)} over the users who rated both recipes and the number of such users.
+ * The matrix is antisymmetric in sums and symmetric in counts. The diagonal is always empty, the number of users
+ * who rated a recipe is kept by {@link SlopeOneModel}.
+ */
+public interface ItemMatrix {
+    /**
+     * Catalogs up to this size are stored densely, larger ones in {@link SparseItemMatrix}
+     */
+    int DENSE_MAX_ITEMS = 1024;
+
+    static ItemMatrix create(int expectedItems) {
+        return create(expectedItems, 0);
+    }
+
+    /**
+     * @param neighbors maximum number of cells in a row, 0 for no limit
+     */
+    static ItemMatrix create(int expectedItems, int neighbors) {
+        if (neighbors <= 0 && expectedItems <= DENSE_MAX_ITEMS) {
+            return new DenseItemMatrix(expectedItems);
+        }
+        return new SparseItemMatrix(expectedItems, neighbors);
+    }
+
+    /**
+     * @return matrix able to hold {@code items} rows, either this one or a grown copy
+     */
+    ItemMatrix ensureCapacity(int items);
+
+    void add(int row, int col, float diffDelta, int countDelta);
+
+    /**
+     * Replaces the row with the given cells, columns must be sorted ascending. Different rows may be set
+     * concurrently as long as the capacity is not changed at the same time.
+     */
+    void setRow(int row, int[] cols, float[] diffSums, int[] counts, int length);
+
+    /**
+     * Replaces the columns of the row's cells dropped by the row size limit, they are not inserted again. Columns
+     * must be sorted ascending.
+     */
+    void setPruned(int row, int[] cols, int length);
+
+    /**
+     * @return sorted columns of the row's cells dropped by the row size limit
+     */
+    int[] getPruned(int row);
+
+    float diffSum(int row, int col);
+
+    int count(int row, int col);
+
+    /**
+     * Visits non-empty cells of the row
+     */
+    void forEachInRow(int row, CellVisitor visitor);
+
+    long memoryBytes();
+
+    @FunctionalInterface
+    interface CellVisitor {
+        void visit(int col, float diffSum, int count);
+    }
+}
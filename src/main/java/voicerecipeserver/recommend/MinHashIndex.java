@@ -0,0 +1,209 @@
+package voicerecipeserver.recommend;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Locality-sensitive index of recipes by their ingredient sets. Every recipe gets a MinHash signature, the signature
+ * is split into bands and recipes sharing a whole band land in the same bucket. Recipes with the Jaccard similarity
+ * s share at least one band with the probability 1 - (1 - s^rows)^bands, so a lookup only scores the recipes from
+ * the buckets of the query instead of the whole catalog. A popular bucket can still hold a large part of the catalog,
+ * so a lookup takes at most {@value #CANDIDATES_PER_RESULT} candidates per requested result, one position of every
+ * bucket at a time, and scores only them.
+ * <p>
+ * Not thread-safe, access is synchronized by {@link SimilarRecipes}.
+ */
+public class MinHashIndex {
+    private static final int CANDIDATES_PER_RESULT = 8;
+
+    private final int bands;
+    private final int rows;
+    private final long[] hashMultipliers;
+    private final long[] hashSeeds;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, Bucket>[] buckets;
+
+    @SuppressWarnings("unchecked")
+    public MinHashIndex(int bands, int rows) {
+        this.bands = bands;
+        this.rows = rows;
+        Random random = new Random(0x5EED);
+        hashMultipliers = new long[bands * rows];
+        hashSeeds = new long[bands * rows];
+        for (int i = 0; i < hashMultipliers.length; ++i) {
+            hashMultipliers[i] = random.nextLong() | 1;
+            hashSeeds[i] = random.nextLong();
+        }
+        buckets = new Map[bands];
+        for (int band = 0; band < bands; ++band) {
+            buckets[band] = new HashMap<>();
+        }
+    }
+
+    /**
+     * Adds the recipe or replaces its previous ingredients. A recipe without ingredients is not indexed.
+     */
+    public void put(long recipeId, long[] ingredientIds) {
+        remove(recipeId);
+        long[] ingredients = Arrays.stream(ingredientIds).sorted().distinct().toArray();
+        if (ingredients.length == 0) {
+            return;
+        }
+        long[] bandKeys = bandKeys(signature(ingredients));
+        entries.put(recipeId, new Entry(ingredients, bandKeys));
+        for (int band = 0; band < bands; ++band) {
+            buckets[band].computeIfAbsent(bandKeys[band], key -> new Bucket()).add(recipeId);
+        }
+    }
+
+    public void remove(long recipeId) {
+        Entry entry = entries.remove(recipeId);
+        if (entry == null) {
+            return;
+        }
+        for (int band = 0; band < bands; ++band) {
+            buckets[band].computeIfPresent(entry.bandKeys[band],
+                                           (key, bucket) -> bucket.remove(recipeId) ? bucket : null);
+        }
+    }
+
+    /**
+     * @return ids of at most n recipes with the highest Jaccard similarity of ingredients among the candidates
+     * from the buckets of the recipe, the most similar first, empty if the recipe is not indexed
+     */
+    public long[] findSimilar(long recipeId, int n) {
+        Entry entry = entries.get(recipeId);
+        if (entry == null || n <= 0) {
+            return new long[0];
+        }
+        int limit = (int) Math.min((long) n * CANDIDATES_PER_RESULT, Integer.MAX_VALUE);
+        RecipeIndex candidates = collectCandidates(entry, recipeId, limit);
+        TopN top = new TopN(Math.min(n, candidates.size()));
+        for (int i = 0; i < candidates.size(); ++i) {
+            top.offer(i, jaccard(entry.ingredients, entries.get(candidates.idOf(i)).ingredients));
+        }
+        int[] best = top.drainDescending();
+        long[] result = new long[best.length];
+        for (int i = 0; i < best.length; ++i) {
+            result[i] = candidates.idOf(best[i]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Both arrays are sorted ingredient ids without duplicates
+     */
+    static double jaccard(long[] a, long[] b) {
+        int common = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                ++common;
+                ++i;
+                ++j;
+            } else if (a[i] < b[j]) {
+                ++i;
+            } else {
+                ++j;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    /**
+     * Takes the buckets of the recipe round-robin, so a recipe sharing several bands with the query, which is the more
+     * similar one, is met early, and a single popular bucket does not use up the whole limit.
+     *
+     * @return candidate ids indexed in the order they were met
+     */
+    private RecipeIndex collectCandidates(Entry entry, long recipeId, int limit) {
+        Bucket[] recipeBuckets = new Bucket[bands];
+        int longest = 0;
+        for (int band = 0; band < bands; ++band) {
+            recipeBuckets[band] = buckets[band].get(entry.bandKeys[band]);
+            if (recipeBuckets[band] != null) {
+                longest = Math.max(longest, recipeBuckets[band].size);
+            }
+        }
+        RecipeIndex candidates = new RecipeIndex(Math.min(limit, bands * longest));
+        for (int position = 0; position < longest; ++position) {
+            for (Bucket bucket : recipeBuckets) {
+                if (bucket == null || position >= bucket.size || bucket.ids[position] == recipeId) {
+                    continue;
+                }
+                candidates.getOrAdd(bucket.ids[position]);
+                if (candidates.size() == limit) {
+                    return candidates;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private long[] signature(long[] ingredients) {
+        long[] signature = new long[hashMultipliers.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long ingredient : ingredients) {
+            for (int i = 0; i < signature.length; ++i) {
+                signature[i] = Math.min(signature[i], mix(ingredient * hashMultipliers[i] + hashSeeds[i]));
+            }
+        }
+        return signature;
+    }
+
+    private long[] bandKeys(long[] signature) {
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; ++band) {
+            long key = band;
+            for (int row = 0; row < rows; ++row) {
+                key = mix(key * 31 + signature[band * rows + row]);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    // finalizer of SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Recipe ids in the order of insertion, the array grows by doubling
+     */
+    private static final class Bucket {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long recipeId) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = recipeId;
+        }
+
+        /**
+         * @return whether the bucket still holds any recipe
+         */
+        boolean remove(long recipeId) {
+            for (int i = 0; i < size; ++i) {
+                if (ids[i] == recipeId) {
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    --size;
+                    break;
+                }
+            }
+            return size > 0;
+        }
+    }
+
+    private record Entry(long[] ingredients, long[] bandKeys) {
+    }
+}
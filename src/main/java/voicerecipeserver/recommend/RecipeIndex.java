@@ -0,0 +1,95 @@
+package voicerecipeserver.recommend;
+
+import java.util.Arrays;
+
+/**
+ * Maps recipe ids to dense int indexes used by {@link ItemMatrix}. Indexes are never reused, so a deleted recipe
+ * just leaves an empty row and column behind. Open addressing over primitive arrays, no boxing.
+ * <p>
+ * Not thread-safe.
+ */
+public class RecipeIndex {
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private long[] ids;
+    private int size;
+
+    public RecipeIndex() {
+        this(16);
+    }
+
+    public RecipeIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        ids = new long[Math.max(expectedSize, 8)];
+    }
+
+    /**
+     * @return index of the recipe or -1 if the recipe is unknown
+     */
+    public int indexOf(long recipeId) {
+        int mask = keys.length - 1;
+        for (int slot = hash(recipeId) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == recipeId) {
+                return values[slot];
+            }
+        }
+        return -1;
+    }
+
+    public int getOrAdd(long recipeId) {
+        int index = indexOf(recipeId);
+        if (index >= 0) {
+            return index;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        insert(recipeId, size);
+        ids[size] = recipeId;
+        return size++;
+    }
+
+    public long idOf(int index) {
+        return ids[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long memoryBytes() {
+        return (long) keys.length * Long.BYTES + (long) values.length * Integer.BYTES + (long) ids.length * Long.BYTES;
+    }
+
+    private void insert(long recipeId, int index) {
+        int mask = keys.length - 1;
+        int slot = hash(recipeId) & mask;
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = recipeId;
+        values[slot] = index;
+    }
+
+    private void rehash(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        for (int i = 0; i < size; ++i) {
+            insert(ids[i], i);
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,89 @@
+package voicerecipeserver.recommend;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static voicerecipeserver.utils.TransactionUtils.afterCommit;
+
+/**
+ * Ranked recipe ids of active users, so paging through recommendations is a slice of a cached array.
+ * Entries are recomputed in the background and dropped when the user hasn't asked for recommendations for a while.
+ */
+@Component
+public class RecommendationCache {
+    private final SlopeOne slopeOne;
+    private final int depth;
+    private final long idleTimeoutMs;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RecommendationCache(SlopeOne slopeOne, @Value("${recommend.cache.depth:100}") int depth,
+                               @Value("${recommend.cache.idle-timeout-ms:1800000}") long idleTimeoutMs) {
+        this.slopeOne = slopeOne;
+        this.depth = depth;
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    /**
+     * @param categoryId category the recipes are selected from, null for all recipes. Filtered pages are not cached.
+     * @return recipe ids of the requested page, possibly empty, or null if the user has no marks or there is nothing
+     * to recommend
+     */
+    public long[] getPage(long userId, Long categoryId, int limit, int page) {
+        long from = (long) page * limit;
+        long to = Math.min(from + limit, Integer.MAX_VALUE);
+        long[] ranked;
+        if (categoryId != null) {
+            ranked = slopeOne.recommend(userId, (int) to, categoryId);
+        } else if (to <= depth) {
+            // computing inside the map keeps a concurrent invalidate from being overwritten by stale data
+            Entry entry = entries.computeIfAbsent(userId, id -> new Entry(slopeOne.recommend(id, depth)));
+            entry.lastAccess = System.currentTimeMillis();
+            ranked = entry.recipeIds;
+        } else {
+            ranked = slopeOne.recommend(userId, (int) to);
+        }
+        if (ranked.length == 0) {
+            return null;
+        }
+        return Arrays.copyOfRange(ranked, (int) Math.min(from, ranked.length), (int) Math.min(to, ranked.length));
+    }
+
+    /**
+     * Drops recommendations of the user after the current transaction commits
+     */
+    public void invalidate(long userId) {
+        afterCommit(() -> entries.remove(userId));
+    }
+
+    @Scheduled(fixedDelayString = "${recommend.cache.refresh-ms:300000}")
+    public void refresh() {
+        long idleSince = System.currentTimeMillis() - idleTimeoutMs;
+        for (Long userId : entries.keySet()) {
+            entries.computeIfPresent(userId, (id, entry) -> {
+                if (entry.lastAccess < idleSince) {
+                    return null;
+                }
+                Entry refreshed = new Entry(slopeOne.recommend(id, depth));
+                refreshed.lastAccess = entry.lastAccess;
+                return refreshed;
+            });
+        }
+    }
+
+    private static class Entry {
+        private final long[] recipeIds;
+        private volatile long lastAccess;
+
+        private Entry(long[] recipeIds) {
+            this.recipeIds = recipeIds;
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package voicerecipeserver.recommend;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import voicerecipeserver.respository.IngredientRepository;
+
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static voicerecipeserver.utils.TransactionUtils.afterCommit;
+
+/**
+ * Recipes with similar ingredients, found through {@link MinHashIndex}. The index is loaded once at startup and then
+ * updated together with the recipes.
+ */
+@Service
+public class SimilarRecipes {
+    private final IngredientRepository ingredientRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final MinHashIndex index;
+
+    /**
+     * @param bands number of LSH bands, more bands find less similar recipes at the cost of more candidates
+     * @param rows  number of MinHash values in a band, more rows make a bucket match stricter
+     */
+    @Autowired
+    public SimilarRecipes(IngredientRepository ingredientRepository,
+                          @Value("${recommend.similar.bands:20}") int bands,
+                          @Value("${recommend.similar.rows:3}") int rows) {
+        this.ingredientRepository = ingredientRepository;
+        this.index = new MinHashIndex(bands, rows);
+    }
+
+    @PostConstruct
+    public void load() {
+        Map<Long, long[]> ingredients = ingredientRepository.findAllRecipeIngredients();
+        lock.writeLock().lock();
+        try {
+            ingredients.forEach(index::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes new ingredients of the recipe. Inside a transaction the index is updated after commit.
+     */
+    public void putRecipe(long recipeId, long[] ingredientIds) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                index.put(recipeId, ingredientIds);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeRecipe(long recipeId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                index.remove(recipeId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * @return ids of at most n recipes with the most similar ingredients, the most similar first
+     */
+    public long[] findSimilar(long recipeId, int n) {
+        lock.readLock().lock();
+        try {
+            return index.findSimilar(recipeId, n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -1,198 +1,303 @@
 package voicerecipeserver.recommend;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AnonymousAuthenticationToken;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import voicerecipeserver.config.Constants;
-import voicerecipeserver.model.dto.RecipeDto;
-import voicerecipeserver.model.entities.Mark;
-import voicerecipeserver.model.entities.Recipe;
-import voicerecipeserver.model.entities.User;
-import voicerecipeserver.model.exceptions.NotFoundException;
+import voicerecipeserver.respository.CategoryRepository;
 import voicerecipeserver.respository.MarkRepository;
-import voicerecipeserver.respository.RecipeRepository;
-import voicerecipeserver.respository.UserRepository;
-import voicerecipeserver.security.service.impl.AuthServiceCommon;
-import voicerecipeserver.utils.FindUtils;
-import voicerecipeserver.utils.GetUtil;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.StreamSupport;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static voicerecipeserver.utils.TransactionUtils.afterCommit;
 
 /**
- * Slope One algorithm implementation
+ * Slope One algorithm implementation.
+ * <p>
+ * The model is built once at startup and then kept up to date by {@link #addMark}/{@link #removeMark}, so a
+ * recommendation request only does the scoring for the current user.
+ * <p>
+ * If a snapshot path is configured, the model is periodically written to a {@link SlopeOneSnapshot} and a restarted
+ * node loads it instead of reading all marks. Changes of the marks table are logged by a trigger, the changes made
+ * after the snapshot, as well as the changes made by other nodes, are replayed from that log.
+ * <p>
+ * The log is read by the transaction id of a change rather than by its time, so neither the clocks of the nodes nor a
+ * slow transaction can hide a change. Every sync re-reads the changes of the transactions that were still running at
+ * the previous one, hence a transaction left open in the database for long makes the syncs read more, not less.
  */
 @Service
 public class SlopeOne {
+    private static final Logger logger = LoggerFactory.getLogger(SlopeOne.class);
 
-    private final ModelMapper mapper;
-    private final UserRepository userRepository;
     private final MarkRepository markRepository;
-    private final Map<Recipe, Map<Recipe, Double>> diff = new HashMap<>();
-    private final Map<Recipe, Map<Recipe, Integer>> freq = new HashMap<>();
-    private final Map<User, HashMap<Recipe, Double>> outputData = new HashMap<>();
-    private final RecipeRepository recipeRepository;
+    private final CategoryRepository categoryRepository;
+    private final SlopeOneVariant variant;
+    private final int neighbors;
+    private final int buildParallelism;
+    private final Path snapshotPath;
+    private final long snapshotMaxAgeMillis;
+    private final long changesRetentionMillis;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private SlopeOneModel model;
+    /**
+     * Oldest transaction id which changes may still be missing from the model
+     */
+    private volatile long changesCursor;
 
+    /**
+     * @param neighbors maximum number of neighbors kept for a recipe, 0 for no limit. Trades accuracy for memory.
+     */
     @Autowired
-    public SlopeOne(ModelMapper mapper, UserRepository userRepository, MarkRepository markRepository,
-                    RecipeRepository recipeRepository) {
-        this.mapper = mapper;
-        this.userRepository = userRepository;
+    public SlopeOne(MarkRepository markRepository, CategoryRepository categoryRepository,
+                    @Value("${recommend.variant:WEIGHTED}") SlopeOneVariant variant,
+                    @Value("${recommend.neighbors:0}") int neighbors,
+                    @Value("${recommend.build.parallelism:0}") int buildParallelism,
+                    @Value("${recommend.snapshot.path:}") String snapshotPath,
+                    @Value("${recommend.snapshot.max-age-ms:86400000}") long snapshotMaxAgeMillis,
+                    @Value("${recommend.changes.retention-ms:3600000}") long changesRetentionMillis) {
         this.markRepository = markRepository;
-        this.recipeRepository = recipeRepository;
+        this.categoryRepository = categoryRepository;
+        this.variant = variant;
+        this.neighbors = neighbors;
+        this.buildParallelism = buildParallelism > 0 ? buildParallelism : Runtime.getRuntime().availableProcessors();
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.snapshotMaxAgeMillis = snapshotMaxAgeMillis;
+        this.changesRetentionMillis = changesRetentionMillis;
+        this.model = new SlopeOneModel(variant, neighbors);
     }
 
-    public List<RecipeDto> recommendAlgSlopeOne(Integer limit, Integer page) throws NotFoundException {
-        Map<User, HashMap<Recipe, Double>> inputData = initializeData();
-        buildDifferencesMatrix(inputData);
-        return predict(inputData, GetUtil.getCurrentLimit(limit), GetUtil.getCurrentPage(page));
+    /**
+     * Loads the model from the snapshot if there is a fresh one built with the same settings, otherwise builds it
+     * from the marks table
+     */
+    @PostConstruct
+    public void init() {
+        SlopeOneSnapshot snapshot = readSnapshot();
+        if (snapshot == null) {
+            rebuild();
+            return;
+        }
+        loadCategories(snapshot.getModel());
+        lock.writeLock().lock();
+        try {
+            model = snapshot.getModel();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        changesCursor = snapshot.getHighWaterMark();
+        logger.info("Slope One model loaded from {}, {} users", snapshotPath, snapshot.getModel().getUsersCount());
+        syncChanges();
     }
 
-    private Map<User, HashMap<Recipe, Double>> initializeData() {
-        List<Mark> markList = StreamSupport.stream(markRepository.findAll().spliterator(), false).toList();
-        Map<User, HashMap<Recipe, Double>> data = new HashMap<>();
-        for (Mark m : markList) {
-            HashMap<Recipe, Double> userRecipesMarked;
-            if (data.containsKey(m.getUser())) {
-                userRecipesMarked = data.get(m.getUser());
-            } else {
-                userRecipesMarked = new HashMap<>();
+    /**
+     * Builds a new model from all marks and replaces the current one. Recommendations are served from the old model
+     * while the new one is being built.
+     */
+    public void rebuild() {
+        // marks changed while they are being read are replayed by the next sync
+        long cursor = markRepository.findMarkChangesCursor();
+        SlopeOneModelBuilder builder = new SlopeOneModelBuilder(variant, neighbors);
+        markRepository.forEachMark(builder::addMark);
+        SlopeOneModel built;
+        if (buildParallelism > 1) {
+            ForkJoinPool pool = new ForkJoinPool(buildParallelism);
+            try {
+                built = builder.build(pool);
+            } finally {
+                pool.shutdown();
             }
-            userRecipesMarked.put(m.getRecipe(), (double) m.getMark());
-            data.put(m.getUser(), userRecipesMarked);
+        } else {
+            built = builder.build();
+        }
+        loadCategories(built);
+        lock.writeLock().lock();
+        try {
+            model = built;
+            changesCursor = cursor;
+        } finally {
+            lock.writeLock().unlock();
         }
-        return data;
+        logger.info("Slope One model built: {}", builder.getStats());
     }
 
     /**
-     * Based on the available data, calculate the relationships between the
-     * items and number of occurences
-     *
-     * @param data existing user data and their items' ratings
+     * Applies the changes of the marks table committed since the last sync. The changes of the transactions still
+     * running at the last sync are applied again, in the logged order, which leaves the model as it was.
      */
-    private void buildDifferencesMatrix(Map<User, HashMap<Recipe, Double>> data) {
-        data.values().forEach(mark -> {
-            mark.forEach((recipe1, rating1) -> {
-                if (!diff.containsKey(recipe1)) {
-                    diff.put(recipe1, new HashMap<>());
-                    freq.put(recipe1, new HashMap<>());
+    @Scheduled(initialDelayString = "${recommend.sync-ms:10000}", fixedDelayString = "${recommend.sync-ms:10000}")
+    public void syncChanges() {
+        long cursor = markRepository.findMarkChangesCursor();
+        List<long[]> changes = new ArrayList<>();
+        markRepository.forEachMarkChange(changesCursor, (userId, recipeId, mark) ->
+                changes.add(new long[]{userId, recipeId, mark}));
+        if (changes.isEmpty()) {
+            changesCursor = cursor;
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (long[] change : changes) {
+                if (change[2] == 0) {
+                    model.removeMark(change[0], change[1]);
+                } else {
+                    model.setMark(change[0], change[1], change[2]);
                 }
-                mark.forEach((recipe2, rating2) -> {
-                    int oldCount = freq.get(recipe1).getOrDefault(recipe2, 0);
-                    double oldDiff = diff.get(recipe1).getOrDefault(recipe2, 0.0);
-                    double observedDiff = rating1 - rating2;
-                    freq.get(recipe1).put(recipe2, oldCount + 1);
-                    diff.get(recipe1).put(recipe2, oldDiff + observedDiff);
-                });
-            });
-        });
-
-        diff.forEach((recipe1, innerMap) -> {
-            innerMap.forEach((recipe2, value) -> {
-                int count = freq.get(recipe1).get(recipe2);
-                innerMap.put(recipe2, value / count);
-            });
-        });
+            }
+            changesCursor = cursor;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Slope One model synced, {} mark changes applied", changes.size());
     }
 
     /**
-     * Based on existing data predict all missing ratings. If prediction is not
-     * possible, the value will be equal to -1
-     *
-     * @param data  existing user data and their items' ratings
+     * Writes the model to the snapshot file
      */
-    private List<RecipeDto> predict(Map<User, HashMap<Recipe, Double>> data, int limit, int page) throws NotFoundException {
-        // Initialize the uPred and uFreq maps
-        HashMap<Recipe, Double> uPred = new HashMap<>();
-        HashMap<Recipe, Integer> uFreq = new HashMap<>();
-        diff.keySet().forEach(j -> {
-            uFreq.put(j, 0);
-            uPred.put(j, 0.0);
-        });
-
-        for (Entry<User, HashMap<Recipe, Double>> e : data.entrySet()) {
-            updateUPredAndUFreq(e, uPred, uFreq);
-            HashMap<Recipe, Double> clean = calculateCleanMap(uPred, uFreq);
-            fillMissingRatings(e, clean);
-            outputData.put(e.getKey(), clean);
+    @PreDestroy
+    @Scheduled(initialDelayString = "${recommend.snapshot.interval-ms:3600000}",
+            fixedDelayString = "${recommend.snapshot.interval-ms:3600000}")
+    public void writeSnapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            SlopeOneSnapshot.write(model, changesCursor, snapshotPath);
+        } catch (IOException e) {
+            logger.warn("Failed to write Slope One snapshot to {}", snapshotPath, e);
+        } finally {
+            lock.readLock().unlock();
         }
+    }
+
+    /**
+     * Drops the logged changes no sync and no snapshot can need anymore, so the log and its replay stay small. A
+     * snapshot is loaded until it is max-age old and replays the changes made after it was written.
+     */
+    @Scheduled(initialDelayString = "${recommend.changes.prune-ms:600000}",
+            fixedDelayString = "${recommend.changes.prune-ms:600000}")
+    public void pruneChanges() {
+        long retentionMillis = snapshotPath == null ? changesRetentionMillis :
+                Math.max(changesRetentionMillis, 2 * snapshotMaxAgeMillis);
+        markRepository.deleteMarkChangesOlderThan(Duration.ofMillis(retentionMillis));
+    }
 
-        return getSortedRecipeDtos(limit, page);
+    /**
+     * Adds the mark or replaces the previous one. Inside a transaction the model is updated after commit.
+     */
+    public void addMark(long userId, long recipeId, float mark) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                model.setMark(userId, recipeId, mark);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
     }
 
-    private void updateUPredAndUFreq(Entry<User, HashMap<Recipe, Double>> e,
-                                     HashMap<Recipe, Double> uPred, HashMap<Recipe, Integer> uFreq) {
-        for (Recipe j : e.getValue().keySet()) {
-            for (Recipe k : diff.keySet()) {
-                double diffValue = diff.get(k).getOrDefault(j, 0.0);
-                double userValue = e.getValue().get(j);
-                int freqValue = freq.get(k).getOrDefault(j, 0);
-
-                double predictedValue = diffValue + userValue;
-                double finalValue = predictedValue * freqValue;
-                uPred.put(k, uPred.getOrDefault(k, 0.0) + finalValue);
-                uFreq.put(k, uFreq.getOrDefault(k, 0) + freqValue);
+    public void removeMark(long userId, long recipeId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                model.removeMark(userId, recipeId);
+            } finally {
+                lock.writeLock().unlock();
             }
-        }
+        });
     }
 
-    private HashMap<Recipe, Double> calculateCleanMap(HashMap<Recipe, Double> uPred, HashMap<Recipe, Integer> uFreq) {
-        HashMap<Recipe, Double> clean = new HashMap<>();
-        uPred.keySet().forEach(j -> {
-            if (uFreq.get(j) > 0) {
-                clean.put(j, uPred.get(j) / uFreq.get(j));
+    public void removeRecipe(long recipeId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                model.removeRecipe(recipeId);
+            } finally {
+                lock.writeLock().unlock();
             }
         });
-        return clean;
     }
 
-    private void fillMissingRatings(Entry<User, HashMap<Recipe, Double>> e, HashMap<Recipe, Double> clean) {
-        List<Mark> markList = StreamSupport.stream(markRepository.findAll().spliterator(), false).toList();
-        markList.forEach(j -> {
-            Recipe recipe = j.getRecipe();
-            if (e.getValue().containsKey(recipe)) {
-                clean.put(recipe, e.getValue().get(recipe));
-            } else if (!clean.containsKey(recipe)) {
-                clean.put(recipe, -1.0);
+    public void addRecipeToCategory(long recipeId, long categoryId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                model.addRecipeToCategory(recipeId, categoryId);
+            } finally {
+                lock.writeLock().unlock();
             }
         });
     }
 
-    private List<RecipeDto> getSortedRecipeDtos(int limit, int page) throws NotFoundException {
-        List<RecipeDto> recipeDtos;
-        if (!(SecurityContextHolder.getContext().getAuthentication() instanceof AnonymousAuthenticationToken)) {
-            User user = FindUtils.findUserByUid(userRepository, AuthServiceCommon.getUserLogin());
-            HashMap<Recipe, Double> outputUserData = outputData.get(user);
-            if (outputUserData != null) {
-                List<Recipe> sortedList = outputUserData.entrySet().stream()
-                        .sorted(Map.Entry.<Recipe, Double>comparingByValue().reversed())
-                        .skip((long) page * limit)
-                        .limit(limit)
-                        .map(Map.Entry::getKey)
-                        .toList();
-                recipeDtos = mapper.map(sortedList, new TypeToken<List<RecipeDto>>() {
-                }.getType());
-            } else {
-                recipeDtos = mapper.map(recipeRepository.findTopRecipesWithLimitAndOffset(limit, page), new TypeToken<List<RecipeDto>>() {
-                }.getType());
+    public void removeRecipeFromCategory(long recipeId, long categoryId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                model.removeRecipeFromCategory(recipeId, categoryId);
+            } finally {
+                lock.writeLock().unlock();
             }
-        } else {
-            recipeDtos = mapper.map(recipeRepository.findTopRecipesWithLimitAndOffset(limit, page), new TypeToken<List<RecipeDto>>() {
-            }.getType());
-        }
+        });
+    }
+
+    /**
+     * @return ids of the best n recipes for the user, empty if the user has no marks
+     */
+    public long[] recommend(long userId, int n) {
+        return recommend(userId, n, null);
+    }
 
-        List<RecipeDto> recipes = mapper.map(recipeRepository.findRandomWithLimit(limit - recipeDtos.size()), new TypeToken<List<RecipeDto>>() {
-        }.getType());
-        recipeDtos.addAll(recipes);
-        return recipeDtos;
+    /**
+     * @param categoryId category the recipes are selected from, null for all recipes
+     * @return ids of the best n recipes not rated by the user, empty if the user has no marks
+     */
+    public long[] recommend(long userId, int n, Long categoryId) {
+        lock.readLock().lock();
+        try {
+            return model.recommend(model.getUserMarks(userId), n, categoryId);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
+    // categories are not part of the marks, so neither the builder nor the snapshot has them
+    private void loadCategories(SlopeOneModel target) {
+        for (Object[] pair : categoryRepository.findAllRecipeCategoryIds()) {
+            target.addRecipeToCategory(((Number) pair[0]).longValue(), ((Number) pair[1]).longValue());
+        }
+    }
 
+    private SlopeOneSnapshot readSnapshot() {
+        if (snapshotPath == null || !Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+        try {
+            SlopeOneSnapshot snapshot = SlopeOneSnapshot.read(snapshotPath);
+            SlopeOneModel loaded = snapshot.getModel();
+            if (System.currentTimeMillis() - snapshot.getCreatedAtMillis() > snapshotMaxAgeMillis) {
+                logger.info("Slope One snapshot {} is too old, rebuilding", snapshotPath);
+                return null;
+            }
+            if (loaded.getVariant() != variant || loaded.getNeighbors() != neighbors) {
+                logger.info("Slope One snapshot {} was built with other settings, rebuilding", snapshotPath);
+                return null;
+            }
+            return snapshot;
+        } catch (IOException e) {
+            logger.warn("Failed to read Slope One snapshot from {}, rebuilding", snapshotPath, e);
+            return null;
+        }
+    }
 }
-
@@ -0,0 +1,353 @@
+package voicerecipeserver.recommend;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State of the Slope One recommender: marks of every user and item-item sums of mark differences with the number
+ * of users who rated both items. Differences are kept as sums, not averages, so a single mark can be added or
+ * removed without rebuilding the whole matrix. Recipes are addressed by dense indexes from {@link RecipeIndex}.
+ * <p>
+ * With a positive neighbors limit every row keeps only the cells of the most co-rated recipes, which bounds the
+ * memory by K cells per recipe and the scoring by K cells per user's mark. Cells dropped by the limit are recorded
+ * and not restored by later marks, which would leave them partial, a rebuild selects the neighbors again.
+ * <p>
+ * Candidates for recommendations are selected with bitsets over the recipe indexes: recipes with marks, recipes of
+ * a category and recipes rated by the user, so filtering is a few word-level operations per 64 recipes.
+ * <p>
+ * Not thread-safe, access is synchronized by {@link SlopeOne}.
+ */
+public class SlopeOneModel {
+    private final SlopeOneVariant variant;
+    private final int neighbors;
+    private final RecipeIndex recipeIndex;
+    private final Map<Long, UserMarks> userMarks;
+    /**
+     * Deviations of all marks for {@link SlopeOneVariant#WEIGHTED}, of likes for {@link SlopeOneVariant#BI_POLAR}
+     */
+    private ItemMatrix matrix;
+    /**
+     * Deviations of dislikes, only for {@link SlopeOneVariant#BI_POLAR}
+     */
+    private ItemMatrix dislikeMatrix;
+    /**
+     * Number of users who rated the recipe
+     */
+    private int[] raters;
+    /**
+     * Recipes with at least one mark
+     */
+    private final BitSet ratedItems = new BitSet();
+    /**
+     * Recipes of every category, categories are not part of the marks and are loaded separately
+     */
+    private final Map<Long, BitSet> categories = new HashMap<>();
+
+    public SlopeOneModel() {
+        this(SlopeOneVariant.WEIGHTED, 0);
+    }
+
+    public SlopeOneModel(SlopeOneVariant variant, int neighbors) {
+        this(variant, neighbors, new RecipeIndex(), new HashMap<>(), ItemMatrix.create(0, neighbors),
+             variant == SlopeOneVariant.BI_POLAR ? ItemMatrix.create(0, neighbors) : null, new int[16]);
+    }
+
+    SlopeOneModel(SlopeOneVariant variant, int neighbors, RecipeIndex recipeIndex, Map<Long, UserMarks> userMarks,
+                  ItemMatrix matrix, ItemMatrix dislikeMatrix, int[] raters) {
+        this.variant = variant;
+        this.neighbors = neighbors;
+        this.recipeIndex = recipeIndex;
+        this.userMarks = userMarks;
+        this.matrix = matrix;
+        this.dislikeMatrix = dislikeMatrix;
+        this.raters = raters;
+        for (int item = 0; item < raters.length; ++item) {
+            if (raters[item] > 0) {
+                ratedItems.set(item);
+            }
+        }
+    }
+
+    /**
+     * Adds the mark or replaces the previous mark of the user for the recipe
+     */
+    public void setMark(long userId, long recipeId, float mark) {
+        removeMark(userId, recipeId);
+        int item = recipeIndex.getOrAdd(recipeId);
+        ensureCapacity(recipeIndex.size());
+        UserMarks marks = userMarks.computeIfAbsent(userId, id -> new UserMarks());
+        if (variant == SlopeOneVariant.BI_POLAR) {
+            // the average of the user moves, so every mark may change its polarity
+            updateBiPolarPairs(marks, -1);
+            marks.put(item, mark);
+            updateBiPolarPairs(marks, 1);
+        } else {
+            marks.put(item, mark);
+            updatePairs(marks, item, mark, 1);
+        }
+        if (raters[item]++ == 0) {
+            ratedItems.set(item);
+        }
+    }
+
+    public void removeMark(long userId, long recipeId) {
+        UserMarks marks = userMarks.get(userId);
+        int item = recipeIndex.indexOf(recipeId);
+        if (marks == null || item < 0 || !marks.contains(item)) {
+            return;
+        }
+        if (variant == SlopeOneVariant.BI_POLAR) {
+            updateBiPolarPairs(marks, -1);
+            marks.remove(item);
+            updateBiPolarPairs(marks, 1);
+        } else {
+            updatePairs(marks, item, marks.get(item), -1);
+            marks.remove(item);
+        }
+        if (--raters[item] == 0) {
+            ratedItems.clear(item);
+        }
+        if (marks.isEmpty()) {
+            userMarks.remove(userId);
+        }
+    }
+
+    /**
+     * Removes all marks and categories of the deleted recipe
+     */
+    public void removeRecipe(long recipeId) {
+        int item = recipeIndex.indexOf(recipeId);
+        if (item < 0) {
+            return;
+        }
+        List<Long> ratersIds = userMarks.entrySet().stream()
+                .filter(e -> e.getValue().contains(item))
+                .map(Map.Entry::getKey)
+                .toList();
+        ratersIds.forEach(userId -> removeMark(userId, recipeId));
+        categories.values().forEach(category -> category.clear(item));
+    }
+
+    public void addRecipeToCategory(long recipeId, long categoryId) {
+        int item = recipeIndex.getOrAdd(recipeId);
+        ensureCapacity(recipeIndex.size());
+        categories.computeIfAbsent(categoryId, id -> new BitSet()).set(item);
+    }
+
+    public void removeRecipeFromCategory(long recipeId, long categoryId) {
+        int item = recipeIndex.indexOf(recipeId);
+        BitSet category = categories.get(categoryId);
+        if (item >= 0 && category != null) {
+            category.clear(item);
+        }
+    }
+
+    public UserMarks getUserMarks(long userId) {
+        return userMarks.get(userId);
+    }
+
+    /**
+     * Same as {@link #recommend(UserMarks, int)} for marks given by recipe ids, unknown recipes are ignored
+     */
+    public long[] recommend(long[] recipeIds, float[] marks, int n) {
+        UserMarks userMarks = new UserMarks(recipeIds.length);
+        for (int i = 0; i < recipeIds.length; ++i) {
+            int item = recipeIndex.indexOf(recipeIds[i]);
+            if (item >= 0) {
+                userMarks.put(item, marks[i]);
+            }
+        }
+        return recommend(userMarks, n);
+    }
+
+    public long[] recommend(UserMarks marks, int n) {
+        return recommend(marks, n, null);
+    }
+
+    /**
+     * Based on the marks of one user predict ratings of the recipes known to the model and select the best n.
+     * Recipes rated by the user are excluded, if prediction is not possible, the value is equal to -1.
+     * The cost depends on the number of the user's marks and the catalog size only.
+     *
+     * @param categoryId category the recipes are selected from, null for all recipes
+     * @return recipe ids ordered from the best to the worst, empty if the user has no marks
+     */
+    public long[] recommend(UserMarks marks, int n, Long categoryId) {
+        if (marks == null || marks.isEmpty()) {
+            return new long[0];
+        }
+        BitSet candidates = (BitSet) ratedItems.clone();
+        if (categoryId != null) {
+            candidates.and(categories.getOrDefault(categoryId, new BitSet()));
+        }
+        BitSet seen = new BitSet();
+        for (int i = 0; i < marks.size(); ++i) {
+            seen.set(marks.itemAt(i));
+        }
+        candidates.andNot(seen);
+        if (candidates.isEmpty()) {
+            return new long[0];
+        }
+
+        int items = recipeIndex.size();
+        double[] uPred = new double[items];
+        int[] uFreq = new int[items];
+        float mean = marks.mean();
+        for (int i = 0; i < marks.size(); ++i) {
+            float rating = marks.markAt(i);
+            ItemMatrix rowMatrix = matrix;
+            if (variant == SlopeOneVariant.BI_POLAR) {
+                int polarity = SlopeOneVariant.polarity(rating, mean);
+                if (polarity == 0) {
+                    continue;
+                }
+                rowMatrix = polarity > 0 ? matrix : dislikeMatrix;
+            }
+            // diff[k][j] == -diff[j][k], so one row of the rated recipe is enough
+            rowMatrix.forEachInRow(marks.itemAt(i), (k, diffSum, count) -> {
+                uPred[k] += rating * count - diffSum;
+                uFreq[k] += count;
+            });
+        }
+
+        TopN top = new TopN(Math.min(n, candidates.cardinality()));
+        for (int k = candidates.nextSetBit(0); k >= 0; k = candidates.nextSetBit(k + 1)) {
+            if (uFreq[k] > 0) {
+                top.offer(k, uPred[k] / uFreq[k]);
+            } else {
+                top.offer(k, -1.0);
+            }
+        }
+
+        int[] best = top.drainDescending();
+        long[] result = new long[best.length];
+        for (int i = 0; i < best.length; ++i) {
+            result[i] = recipeIndex.idOf(best[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Predicts the mark of one recipe the same way {@link #recommend(UserMarks, int)} does, ignoring the user's own
+     * mark of the recipe
+     *
+     * @return predicted mark or NaN if the prediction is not possible
+     */
+    public float predict(UserMarks marks, long recipeId) {
+        int k = recipeIndex.indexOf(recipeId);
+        if (marks == null || k < 0) {
+            return Float.NaN;
+        }
+        double pred = 0;
+        long freq = 0;
+        float mean = marks.mean();
+        for (int i = 0; i < marks.size(); ++i) {
+            int item = marks.itemAt(i);
+            float rating = marks.markAt(i);
+            ItemMatrix rowMatrix = matrix;
+            if (variant == SlopeOneVariant.BI_POLAR) {
+                int polarity = SlopeOneVariant.polarity(rating, mean);
+                if (polarity == 0) {
+                    continue;
+                }
+                rowMatrix = polarity > 0 ? matrix : dislikeMatrix;
+            }
+            if (item == k) {
+                continue;
+            }
+            int count = rowMatrix.count(item, k);
+            pred += rating * count - rowMatrix.diffSum(item, k);
+            freq += count;
+        }
+        return freq > 0 ? (float) (pred / freq) : Float.NaN;
+    }
+
+    public SlopeOneVariant getVariant() {
+        return variant;
+    }
+
+    public int getNeighbors() {
+        return neighbors;
+    }
+
+    RecipeIndex getRecipeIndex() {
+        return recipeIndex;
+    }
+
+    ItemMatrix getMatrix() {
+        return matrix;
+    }
+
+    ItemMatrix getDislikeMatrix() {
+        return dislikeMatrix;
+    }
+
+    Map<Long, UserMarks> getAllUserMarks() {
+        return userMarks;
+    }
+
+    int[] getRaters() {
+        return raters;
+    }
+
+    public int getUsersCount() {
+        return userMarks.size();
+    }
+
+    public long memoryBytes() {
+        long bytes = recipeIndex.memoryBytes() + matrix.memoryBytes() + (long) raters.length * Integer.BYTES
+                + ratedItems.size() / Byte.SIZE;
+        for (BitSet category : categories.values()) {
+            bytes += category.size() / Byte.SIZE;
+        }
+        if (dislikeMatrix != null) {
+            bytes += dislikeMatrix.memoryBytes();
+        }
+        for (UserMarks marks : userMarks.values()) {
+            bytes += marks.memoryBytes();
+        }
+        return bytes;
+    }
+
+    private void ensureCapacity(int items) {
+        matrix = matrix.ensureCapacity(items);
+        if (dislikeMatrix != null) {
+            dislikeMatrix = dislikeMatrix.ensureCapacity(items);
+        }
+        if (raters.length < items) {
+            raters = Arrays.copyOf(raters, Math.max(items, raters.length * 2));
+        }
+    }
+
+    private void updatePairs(UserMarks marks, int item, float mark, int sign) {
+        for (int i = 0; i < marks.size(); ++i) {
+            int k = marks.itemAt(i);
+            if (k == item) {
+                continue;
+            }
+            float otherMark = marks.markAt(i);
+            matrix.add(item, k, sign * (mark - otherMark), sign);
+            matrix.add(k, item, sign * (otherMark - mark), sign);
+        }
+    }
+
+    private void updateBiPolarPairs(UserMarks marks, int sign) {
+        float mean = marks.mean();
+        for (int i = 0; i < marks.size(); ++i) {
+            int polarity = SlopeOneVariant.polarity(marks.markAt(i), mean);
+            if (polarity == 0) {
+                continue;
+            }
+            ItemMatrix polarMatrix = polarity > 0 ? matrix : dislikeMatrix;
+            for (int j = 0; j < marks.size(); ++j) {
+                if (j != i && SlopeOneVariant.polarity(marks.markAt(j), mean) == polarity) {
+                    polarMatrix.add(marks.itemAt(i), marks.itemAt(j), sign * (marks.markAt(i) - marks.markAt(j)),
+                                    sign);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package voicerecipeserver.recommend;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Builds {@link SlopeOneModel} from a full set of marks at once instead of adding them one by one.
+ * <p>
+ * The matrix is built row by row: for the recipe of the row every user who rated it contributes the differences
+ * with all of their other marks. Rows don't share any state, so in the parallel mode ranges of rows are computed by
+ * separate fork-join tasks without locking and without merging partial matrices. Every row sums the users in the
+ * same order in both modes, so the sequential and parallel results are identical.
+ * <p>
+ * With a neighbors limit only the most co-rated cells of every row are stored, ties are resolved in favour of the
+ * lower recipe index. The columns of the dropped cells are recorded in the row, see {@link ItemMatrix#setPruned}.
+ */
+public class SlopeOneModelBuilder {
+    private static final int ROWS_PER_TASK = 64;
+
+    private final SlopeOneVariant variant;
+    private final int neighbors;
+    private final RecipeIndex recipeIndex = new RecipeIndex();
+    private final Map<Long, UserMarks> userMarks = new HashMap<>();
+    private long marksCount;
+    private BuildStats stats;
+
+    public SlopeOneModelBuilder() {
+        this(SlopeOneVariant.WEIGHTED, 0);
+    }
+
+    /**
+     * @param neighbors maximum number of cells in a matrix row, 0 for no limit
+     */
+    public SlopeOneModelBuilder(SlopeOneVariant variant, int neighbors) {
+        this.variant = variant;
+        this.neighbors = neighbors;
+    }
+
+    public void addMark(long userId, long recipeId, float mark) {
+        int item = recipeIndex.getOrAdd(recipeId);
+        if (Float.isNaN(userMarks.computeIfAbsent(userId, id -> new UserMarks()).put(item, mark))) {
+            ++marksCount;
+        }
+    }
+
+    public SlopeOneModel build() {
+        return build(null);
+    }
+
+    /**
+     * @param pool pool to build the matrix rows in, null to build in the calling thread
+     */
+    public SlopeOneModel build(ForkJoinPool pool) {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(memoryPool -> memoryPool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long start = System.nanoTime();
+
+        int items = recipeIndex.size();
+        Raters raters = new Raters(items, new ArrayList<>(userMarks.values()));
+        ItemMatrix matrix;
+        ItemMatrix dislikeMatrix = null;
+        if (variant == SlopeOneVariant.BI_POLAR) {
+            matrix = buildMatrix(pool, raters, 1);
+            dislikeMatrix = buildMatrix(pool, raters, -1);
+        } else {
+            matrix = buildMatrix(pool, raters, 0);
+        }
+        int[] ratersCounts = new int[Math.max(items, 16)];
+        for (int item = 0; item < items; ++item) {
+            ratersCounts[item] = raters.offsets[item + 1] - raters.offsets[item];
+        }
+        SlopeOneModel model = new SlopeOneModel(variant, neighbors, recipeIndex, userMarks, matrix,
+                                                dislikeMatrix, ratersCounts);
+
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        long peakHeapBytes = heapPools.stream().mapToLong(memoryPool -> memoryPool.getPeakUsage().getUsed()).sum();
+        stats = new BuildStats(variant, neighbors, userMarks.size(), items, marksCount, pool == null ? 1 : pool.getParallelism(),
+                               buildMillis, peakHeapBytes, model.memoryBytes());
+        return model;
+    }
+
+    /**
+     * @param polarity 0 to use all marks, 1 for likes only, -1 for dislikes only
+     */
+    private ItemMatrix buildMatrix(ForkJoinPool pool, Raters raters, int polarity) {
+        int items = recipeIndex.size();
+        ItemMatrix matrix = ItemMatrix.create(items, neighbors);
+        RowsTask task = new RowsTask(raters, matrix, polarity, neighbors, 0, items);
+        if (pool == null) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+        return matrix;
+    }
+
+    /**
+     * @return statistics of the last {@link #build} call
+     */
+    public BuildStats getStats() {
+        return stats;
+    }
+
+    public record BuildStats(SlopeOneVariant variant, int neighbors, int users, int recipes, long marks,
+                             int parallelism, long buildMillis, long peakHeapBytes, long modelBytes) {
+    }
+
+    /**
+     * For every recipe the users who rated it with their marks, in compressed form
+     */
+    private static class Raters {
+        private final List<UserMarks> users;
+        private final float[] means;
+        private final int[] offsets;
+        private final int[] userIndexes;
+        private final float[] marks;
+
+        private Raters(int items, List<UserMarks> users) {
+            this.users = users;
+            means = new float[users.size()];
+            for (int u = 0; u < users.size(); ++u) {
+                means[u] = users.get(u).mean();
+            }
+            offsets = new int[items + 1];
+            for (UserMarks user : users) {
+                for (int i = 0; i < user.size(); ++i) {
+                    ++offsets[user.itemAt(i) + 1];
+                }
+            }
+            for (int item = 0; item < items; ++item) {
+                offsets[item + 1] += offsets[item];
+            }
+            userIndexes = new int[offsets[items]];
+            marks = new float[offsets[items]];
+            int[] next = Arrays.copyOf(offsets, items);
+            for (int u = 0; u < users.size(); ++u) {
+                UserMarks user = users.get(u);
+                for (int i = 0; i < user.size(); ++i) {
+                    int pos = next[user.itemAt(i)]++;
+                    userIndexes[pos] = u;
+                    marks[pos] = user.markAt(i);
+                }
+            }
+        }
+    }
+
+    private static class RowsTask extends RecursiveAction {
+        private final Raters raters;
+        private final ItemMatrix matrix;
+        private final int polarity;
+        private final int neighbors;
+        private final int from;
+        private final int to;
+
+        private RowsTask(Raters raters, ItemMatrix matrix, int polarity, int neighbors, int from, int to) {
+            this.raters = raters;
+            this.matrix = matrix;
+            this.polarity = polarity;
+            this.neighbors = neighbors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK && getPool() != null) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowsTask(raters, matrix, polarity, neighbors, from, middle),
+                          new RowsTask(raters, matrix, polarity, neighbors, middle, to));
+                return;
+            }
+            int items = raters.offsets.length - 1;
+            float[] diffSums = new float[items];
+            int[] counts = new int[items];
+            int[] touched = new int[items];
+            float[] rowSums = new float[items];
+            int[] rowCounts = new int[items];
+            int[] pruned = new int[items];
+            for (int row = from; row < to; ++row) {
+                int touchedCount = 0;
+                for (int pos = raters.offsets[row]; pos < raters.offsets[row + 1]; ++pos) {
+                    int u = raters.userIndexes[pos];
+                    UserMarks user = raters.users.get(u);
+                    float mark = raters.marks[pos];
+                    if (!matches(mark, raters.means[u])) {
+                        continue;
+                    }
+                    for (int i = 0; i < user.size(); ++i) {
+                        int col = user.itemAt(i);
+                        if (col == row || !matches(user.markAt(i), raters.means[u])) {
+                            continue;
+                        }
+                        if (counts[col] == 0) {
+                            touched[touchedCount++] = col;
+                        }
+                        diffSums[col] += mark - user.markAt(i);
+                        ++counts[col];
+                    }
+                }
+                int[] cols = touched;
+                int length = touchedCount;
+                if (neighbors > 0 && touchedCount > neighbors) {
+                    TopN top = new TopN(neighbors);
+                    for (int i = 0; i < touchedCount; ++i) {
+                        top.offer(touched[i], counts[touched[i]]);
+                    }
+                    cols = top.drainDescending();
+                    length = cols.length;
+                }
+                Arrays.sort(cols, 0, length);
+                for (int i = 0; i < length; ++i) {
+                    rowSums[i] = diffSums[cols[i]];
+                    rowCounts[i] = counts[cols[i]];
+                }
+                int prunedLength = 0;
+                if (length < touchedCount) {
+                    // the kept cells are cleared first, the touched cells left with a count are the dropped ones
+                    for (int i = 0; i < length; ++i) {
+                        counts[cols[i]] = 0;
+                    }
+                    for (int i = 0; i < touchedCount; ++i) {
+                        if (counts[touched[i]] != 0) {
+                            pruned[prunedLength++] = touched[i];
+                        }
+                    }
+                    Arrays.sort(pruned, 0, prunedLength);
+                }
+                for (int i = 0; i < touchedCount; ++i) {
+                    diffSums[touched[i]] = 0;
+                    counts[touched[i]] = 0;
+                }
+                matrix.setRow(row, cols, rowSums, rowCounts, length);
+                if (prunedLength > 0) {
+                    matrix.setPruned(row, pruned, prunedLength);
+                }
+            }
+        }
+
+        private boolean matches(float mark, float userMean) {
+            return polarity == 0 || SlopeOneVariant.polarity(mark, userMean) == polarity;
+        }
+    }
+}
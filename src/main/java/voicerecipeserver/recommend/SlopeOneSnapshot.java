@@ -0,0 +1,197 @@
+package voicerecipeserver.recommend;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary snapshot of {@link SlopeOneModel} on local disk, so a node can start without reading the whole marks table.
+ * The snapshot stores the oldest transaction id which mark changes may be missing from the model, changes from it on
+ * are replayed from the database after loading.
+ * <p>
+ * Layout, big-endian: magic, version, variant, neighbors, high-water mark, creation time, recipe ids with the number
+ * of raters, user marks, then the rows of every matrix as (column, difference sum, count) cells followed by the
+ * columns of the cells dropped by the neighbors limit.
+ */
+public class SlopeOneSnapshot {
+    private static final int MAGIC = 0x534C4F31;
+    private static final int VERSION = 3;
+
+    private final SlopeOneModel model;
+    private final long highWaterMark;
+    private final long createdAtMillis;
+
+    private SlopeOneSnapshot(SlopeOneModel model, long highWaterMark, long createdAtMillis) {
+        this.model = model;
+        this.highWaterMark = highWaterMark;
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    public SlopeOneModel getModel() {
+        return model;
+    }
+
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    /**
+     * Writes the snapshot to a temporary file next to the target and moves it in place,
+     * so a crash never leaves a half-written snapshot behind
+     */
+    public static void write(SlopeOneModel model, long highWaterMark, Path path) throws IOException {
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            RecipeIndex recipeIndex = model.getRecipeIndex();
+            int items = recipeIndex.size();
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(model.getVariant().ordinal());
+            out.writeInt(model.getNeighbors());
+            out.writeLong(highWaterMark);
+            out.writeLong(System.currentTimeMillis());
+
+            out.writeInt(items);
+            int[] raters = model.getRaters();
+            for (int item = 0; item < items; ++item) {
+                out.writeLong(recipeIndex.idOf(item));
+                out.writeInt(raters[item]);
+            }
+
+            Map<Long, UserMarks> userMarks = model.getAllUserMarks();
+            out.writeInt(userMarks.size());
+            for (Map.Entry<Long, UserMarks> entry : userMarks.entrySet()) {
+                UserMarks marks = entry.getValue();
+                out.writeLong(entry.getKey());
+                out.writeInt(marks.size());
+                for (int i = 0; i < marks.size(); ++i) {
+                    out.writeInt(marks.itemAt(i));
+                    out.writeFloat(marks.markAt(i));
+                }
+            }
+
+            writeMatrix(out, model.getMatrix(), items);
+            if (model.getDislikeMatrix() != null) {
+                writeMatrix(out, model.getDislikeMatrix(), items);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the snapshot into a new model, the rows of the matrices are read in bulk
+     *
+     * @throws IOException if the file can't be read or is not a snapshot of the current format
+     */
+    public static SlopeOneSnapshot read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a Slope One snapshot of version " + VERSION + ": " + path);
+            }
+            SlopeOneVariant variant = SlopeOneVariant.values()[in.readInt()];
+            int neighbors = in.readInt();
+            long highWaterMark = in.readLong();
+            long createdAtMillis = in.readLong();
+
+            int items = in.readInt();
+            RecipeIndex recipeIndex = new RecipeIndex(items);
+            int[] raters = new int[Math.max(items, 16)];
+            for (int item = 0; item < items; ++item) {
+                recipeIndex.getOrAdd(in.readLong());
+                raters[item] = in.readInt();
+            }
+
+            int users = in.readInt();
+            Map<Long, UserMarks> userMarks = new HashMap<>(users * 2);
+            for (int u = 0; u < users; ++u) {
+                long userId = in.readLong();
+                int size = in.readInt();
+                UserMarks marks = new UserMarks(size);
+                for (int i = 0; i < size; ++i) {
+                    marks.put(in.readInt(), in.readFloat());
+                }
+                userMarks.put(userId, marks);
+            }
+
+            ItemMatrix matrix = readMatrix(in, items, neighbors);
+            ItemMatrix dislikeMatrix = null;
+            if (variant == SlopeOneVariant.BI_POLAR) {
+                dislikeMatrix = readMatrix(in, items, neighbors);
+            }
+            SlopeOneModel model = new SlopeOneModel(variant, neighbors, recipeIndex, userMarks, matrix, dislikeMatrix,
+                                                    raters);
+            return new SlopeOneSnapshot(model, highWaterMark, createdAtMillis);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted Slope One snapshot: " + path, e);
+        }
+    }
+
+    private static void writeMatrix(DataOutputStream out, ItemMatrix matrix, int items) throws IOException {
+        int[] rowSize = new int[1];
+        ByteBuffer row = ByteBuffer.allocate(1 << 12);
+        for (int item = 0; item < items; ++item) {
+            rowSize[0] = 0;
+            matrix.forEachInRow(item, (col, diffSum, count) -> ++rowSize[0]);
+            if (row.capacity() < rowSize[0] * 12) {
+                row = ByteBuffer.allocate(rowSize[0] * 12);
+            }
+            row.clear();
+            ByteBuffer cells = row;
+            matrix.forEachInRow(item, (col, diffSum, count) -> cells.putInt(col).putFloat(diffSum).putInt(count));
+            out.writeInt(rowSize[0]);
+            out.write(row.array(), 0, row.position());
+            int[] pruned = matrix.getPruned(item);
+            out.writeInt(pruned.length);
+            for (int col : pruned) {
+                out.writeInt(col);
+            }
+        }
+    }
+
+    private static ItemMatrix readMatrix(DataInputStream in, int items, int neighbors) throws IOException {
+        ItemMatrix matrix = ItemMatrix.create(items, neighbors);
+        int[] cols = new int[items];
+        float[] diffSums = new float[items];
+        int[] counts = new int[items];
+        ByteBuffer row = ByteBuffer.allocate(1 << 12);
+        for (int item = 0; item < items; ++item) {
+            int size = in.readInt();
+            if (row.capacity() < size * 12) {
+                row = ByteBuffer.allocate(size * 12);
+            }
+            in.readFully(row.array(), 0, size * 12);
+            row.clear();
+            for (int i = 0; i < size; ++i) {
+                cols[i] = row.getInt();
+                diffSums[i] = row.getFloat();
+                counts[i] = row.getInt();
+            }
+            matrix.setRow(item, cols, diffSums, counts, size);
+            int prunedSize = in.readInt();
+            if (prunedSize > 0) {
+                for (int i = 0; i < prunedSize; ++i) {
+                    cols[i] = in.readInt();
+                }
+                matrix.setPruned(item, cols, prunedSize);
+            }
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,23 @@
+package voicerecipeserver.recommend;
+
+/**
+ * Flavours of Slope One supported by {@link SlopeOneModel}
+ */
+public enum SlopeOneVariant {
+    /**
+     * Deviations are weighted by the number of users who rated both recipes
+     */
+    WEIGHTED,
+    /**
+     * Weighted Slope One with separate deviations for recipes both liked and both disliked by users. A mark is a like
+     * when it is above the user's average and a dislike when below, marks equal to the average are not used.
+     */
+    BI_POLAR;
+
+    /**
+     * @return 1 for a like, -1 for a dislike, 0 otherwise
+     */
+    static int polarity(float mark, float userMean) {
+        return Float.compare(mark, userMean);
+    }
+}
@@ -0,0 +1,182 @@
+package voicerecipeserver.recommend;
+
+import java.util.Arrays;
+
+/**
+ * {@link ItemMatrix} for large catalogs in compressed sparse row form: every row keeps sorted column indexes with
+ * parallel arrays of difference sums and counts, so a cell costs 12 bytes and a lookup is a binary search within the
+ * row. Rows grow on insert, cells whose count drops to zero are removed.
+ * <p>
+ * With a row size limit new cells are not inserted into full rows. The columns of the cells dropped by the limit are
+ * kept per row, 4 bytes each, and are never inserted again: such a cell would hold only the marks added after the
+ * drop, and removing an older mark would subtract a difference it never had. A rebuild selects the cells again.
+ */
+public class SparseItemMatrix implements ItemMatrix {
+    private static final int[] EMPTY_COLS = new int[0];
+    private static final float[] EMPTY_SUMS = new float[0];
+
+    private int[][] cols;
+    private float[][] diffSums;
+    private int[][] counts;
+    private int[] rowSizes;
+    /**
+     * Sorted columns of the dropped cells of every row
+     */
+    private int[][] pruned;
+    private int[] prunedSizes;
+    private final int maxRowSize;
+
+    public SparseItemMatrix(int capacity) {
+        this(capacity, 0);
+    }
+
+    /**
+     * @param maxRowSize maximum number of cells in a row, 0 for no limit
+     */
+    public SparseItemMatrix(int capacity, int maxRowSize) {
+        this.maxRowSize = maxRowSize > 0 ? maxRowSize : Integer.MAX_VALUE;
+        capacity = Math.max(capacity, 16);
+        cols = new int[capacity][];
+        diffSums = new float[capacity][];
+        counts = new int[capacity][];
+        rowSizes = new int[capacity];
+        pruned = new int[capacity][];
+        prunedSizes = new int[capacity];
+        Arrays.fill(cols, EMPTY_COLS);
+        Arrays.fill(diffSums, EMPTY_SUMS);
+        Arrays.fill(counts, EMPTY_COLS);
+        Arrays.fill(pruned, EMPTY_COLS);
+    }
+
+    @Override
+    public ItemMatrix ensureCapacity(int items) {
+        int capacity = rowSizes.length;
+        if (items <= capacity) {
+            return this;
+        }
+        int newCapacity = Math.max(capacity * 2, items);
+        cols = Arrays.copyOf(cols, newCapacity);
+        diffSums = Arrays.copyOf(diffSums, newCapacity);
+        counts = Arrays.copyOf(counts, newCapacity);
+        rowSizes = Arrays.copyOf(rowSizes, newCapacity);
+        pruned = Arrays.copyOf(pruned, newCapacity);
+        prunedSizes = Arrays.copyOf(prunedSizes, newCapacity);
+        Arrays.fill(cols, capacity, newCapacity, EMPTY_COLS);
+        Arrays.fill(diffSums, capacity, newCapacity, EMPTY_SUMS);
+        Arrays.fill(counts, capacity, newCapacity, EMPTY_COLS);
+        Arrays.fill(pruned, capacity, newCapacity, EMPTY_COLS);
+        return this;
+    }
+
+    @Override
+    public void add(int row, int col, float diffDelta, int countDelta) {
+        int size = rowSizes[row];
+        int pos = Arrays.binarySearch(cols[row], 0, size, col);
+        if (pos >= 0) {
+            counts[row][pos] += countDelta;
+            diffSums[row][pos] += diffDelta;
+            if (counts[row][pos] == 0) {
+                removeCell(row, pos);
+            }
+            return;
+        }
+        if (countDelta <= 0) {
+            return;
+        }
+        int prunedPos = Arrays.binarySearch(pruned[row], 0, prunedSizes[row], col);
+        if (prunedPos >= 0) {
+            return;
+        }
+        if (size >= maxRowSize) {
+            insertPruned(row, -prunedPos - 1, col);
+            return;
+        }
+        insertCell(row, -pos - 1, col, diffDelta, countDelta);
+    }
+
+    @Override
+    public void setPruned(int row, int[] cols, int length) {
+        pruned[row] = Arrays.copyOf(cols, length);
+        prunedSizes[row] = length;
+    }
+
+    @Override
+    public int[] getPruned(int row) {
+        return Arrays.copyOf(pruned[row], prunedSizes[row]);
+    }
+
+    @Override
+    public void setRow(int row, int[] cols, float[] diffSums, int[] counts, int length) {
+        this.cols[row] = Arrays.copyOf(cols, length);
+        this.diffSums[row] = Arrays.copyOf(diffSums, length);
+        this.counts[row] = Arrays.copyOf(counts, length);
+        rowSizes[row] = length;
+    }
+
+    @Override
+    public float diffSum(int row, int col) {
+        int pos = Arrays.binarySearch(cols[row], 0, rowSizes[row], col);
+        return pos >= 0 ? diffSums[row][pos] : 0;
+    }
+
+    @Override
+    public int count(int row, int col) {
+        int pos = Arrays.binarySearch(cols[row], 0, rowSizes[row], col);
+        return pos >= 0 ? counts[row][pos] : 0;
+    }
+
+    @Override
+    public void forEachInRow(int row, CellVisitor visitor) {
+        int[] rowCols = cols[row];
+        float[] rowSums = diffSums[row];
+        int[] rowCounts = counts[row];
+        for (int i = 0, size = rowSizes[row]; i < size; ++i) {
+            visitor.visit(rowCols[i], rowSums[i], rowCounts[i]);
+        }
+    }
+
+    @Override
+    public long memoryBytes() {
+        long bytes = (long) rowSizes.length * (Integer.BYTES + 3 * 8);
+        for (int row = 0; row < rowSizes.length; ++row) {
+            bytes += (long) cols[row].length * (2 * Integer.BYTES + Float.BYTES);
+            bytes += (long) pruned[row].length * Integer.BYTES;
+        }
+        return bytes;
+    }
+
+    private void insertCell(int row, int pos, int col, float diffSum, int count) {
+        int size = rowSizes[row];
+        if (size == cols[row].length) {
+            int newLength = Math.max(4, size + (size >> 1));
+            cols[row] = Arrays.copyOf(cols[row], newLength);
+            diffSums[row] = Arrays.copyOf(diffSums[row], newLength);
+            counts[row] = Arrays.copyOf(counts[row], newLength);
+        }
+        System.arraycopy(cols[row], pos, cols[row], pos + 1, size - pos);
+        System.arraycopy(diffSums[row], pos, diffSums[row], pos + 1, size - pos);
+        System.arraycopy(counts[row], pos, counts[row], pos + 1, size - pos);
+        cols[row][pos] = col;
+        diffSums[row][pos] = diffSum;
+        counts[row][pos] = count;
+        rowSizes[row] = size + 1;
+    }
+
+    private void insertPruned(int row, int pos, int col) {
+        int size = prunedSizes[row];
+        if (size == pruned[row].length) {
+            pruned[row] = Arrays.copyOf(pruned[row], Math.max(4, size + (size >> 1)));
+        }
+        System.arraycopy(pruned[row], pos, pruned[row], pos + 1, size - pos);
+        pruned[row][pos] = col;
+        prunedSizes[row] = size + 1;
+    }
+
+    private void removeCell(int row, int pos) {
+        int size = rowSizes[row];
+        System.arraycopy(cols[row], pos + 1, cols[row], pos, size - pos - 1);
+        System.arraycopy(diffSums[row], pos + 1, diffSums[row], pos, size - pos - 1);
+        System.arraycopy(counts[row], pos + 1, counts[row], pos, size - pos - 1);
+        rowSizes[row] = size - 1;
+    }
+}
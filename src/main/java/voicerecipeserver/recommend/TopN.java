@@ -0,0 +1,97 @@
+package voicerecipeserver.recommend;
+
+/**
+ * Bounded min-heap keeping the n items with the highest scores. Ties are broken by the lower item index, so the
+ * result does not depend on the order of offers.
+ */
+public class TopN {
+    private final int capacity;
+    private final int[] items;
+    private final double[] scores;
+    private int size;
+
+    public TopN(int capacity) {
+        this.capacity = capacity;
+        this.items = new int[capacity];
+        this.scores = new double[capacity];
+    }
+
+    public void offer(int item, double score) {
+        if (capacity == 0) {
+            return;
+        }
+        if (size < capacity) {
+            items[size] = item;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (better(item, score, 0)) {
+            items[0] = item;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empties the heap
+     *
+     * @return items ordered from the highest score to the lowest
+     */
+    public int[] drainDescending() {
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; --i) {
+            result[i] = items[0];
+            --size;
+            items[0] = items[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    private boolean better(int item, double score, int pos) {
+        return score > scores[pos] || (score == scores[pos] && item < items[pos]);
+    }
+
+    private void siftUp(int pos) {
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!better(items[parent], scores[parent], pos)) {
+                break;
+            }
+            swap(pos, parent);
+            pos = parent;
+        }
+    }
+
+    private void siftDown(int pos) {
+        while (true) {
+            int left = 2 * pos + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && better(items[left], scores[left], right)) {
+                worst = right;
+            }
+            if (!better(items[pos], scores[pos], worst)) {
+                return;
+            }
+            swap(pos, worst);
+            pos = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
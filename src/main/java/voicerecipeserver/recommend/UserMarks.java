@@ -0,0 +1,99 @@
+package voicerecipeserver.recommend;
+
+import java.util.Arrays;
+
+/**
+ * Marks of one user as parallel arrays of recipe indexes, sorted ascending, and marks.
+ */
+public class UserMarks {
+    private int[] items;
+    private float[] marks;
+    private int size;
+
+    public UserMarks() {
+        this(4);
+    }
+
+    public UserMarks(int capacity) {
+        items = new int[Math.max(capacity, 1)];
+        marks = new float[Math.max(capacity, 1)];
+    }
+
+    /**
+     * @return previous mark or {@link Float#NaN} if the recipe was not rated
+     */
+    public float put(int item, float mark) {
+        int pos = Arrays.binarySearch(items, 0, size, item);
+        if (pos >= 0) {
+            float old = marks[pos];
+            marks[pos] = mark;
+            return old;
+        }
+        pos = -pos - 1;
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+            marks = Arrays.copyOf(marks, size * 2);
+        }
+        System.arraycopy(items, pos, items, pos + 1, size - pos);
+        System.arraycopy(marks, pos, marks, pos + 1, size - pos);
+        items[pos] = item;
+        marks[pos] = mark;
+        ++size;
+        return Float.NaN;
+    }
+
+    /**
+     * @return removed mark or {@link Float#NaN} if the recipe was not rated
+     */
+    public float remove(int item) {
+        int pos = Arrays.binarySearch(items, 0, size, item);
+        if (pos < 0) {
+            return Float.NaN;
+        }
+        float old = marks[pos];
+        System.arraycopy(items, pos + 1, items, pos, size - pos - 1);
+        System.arraycopy(marks, pos + 1, marks, pos, size - pos - 1);
+        --size;
+        return old;
+    }
+
+    /**
+     * @return mark or {@link Float#NaN} if the recipe was not rated
+     */
+    public float get(int item) {
+        int pos = Arrays.binarySearch(items, 0, size, item);
+        return pos >= 0 ? marks[pos] : Float.NaN;
+    }
+
+    public boolean contains(int item) {
+        return Arrays.binarySearch(items, 0, size, item) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int itemAt(int i) {
+        return items[i];
+    }
+
+    public float markAt(int i) {
+        return marks[i];
+    }
+
+    public float mean() {
+        float sum = 0;
+        for (int i = 0; i < size; ++i) {
+            sum += marks[i];
+        }
+        return size == 0 ? 0 : sum / size;
+    }
+
+    public long memoryBytes() {
+        return (long) items.length * (Integer.BYTES + Float.BYTES);
+    }
+}
@@ -37,4 +37,12 @@ public interface CategoryRepository extends CrudRepository<Category, Long> {
             WHERE distr.selection_id = :id
             """, nativeQuery = true)
     List<Category> findBySelectionId(Long id);
+
+    /**
+     * @return (recipe id, category id) pairs of all recipes
+     */
+    @Query(value = """
+            SELECT recipe_id, category_id FROM categories_distribution
+            """, nativeQuery = true)
+    List<Object[]> findAllRecipeCategoryIds();
 }
@@ -9,21 +9,28 @@ import java.util.List;
 import java.util.Optional;
 
 public interface CollectionRepository extends CrudRepository<Collection, Long> {
+    /**
+     * Collections with a name word starting with the part, ordered by name and id
+     *
+     * @param afterName name of the last collection of the previous page, empty for the first page
+     * @param afterId   id of the last collection of the previous page, 0 for the first page
+     */
     @Query(value = """
-                (
-                    SELECT * FROM collections
-                    WHERE name ILIKE :namePart || '%'
-                    ORDER BY name
-                )
-                UNION
-                (
-                    SELECT * FROM collections
-                    WHERE name ILIKE '% ' || :namePart || '%'
-                    ORDER BY name
-                )
-                LIMIT :limit OFFSET :limit * :page
+                SELECT * FROM collections
+                WHERE (name ILIKE :namePart || '%' OR name ILIKE '% ' || :namePart || '%')
+                  AND (name, id) > (:afterName, :afterId)
+                ORDER BY name, id
+                LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<Collection> findByNameContaining(String namePart, String afterName, long afterId, int limit, int offset);
+
+    /**
+     * @return (id, name) pairs of all collections
+     */
+    @Query(value = """
+                SELECT id, name FROM collections
             """, nativeQuery = true)
-    List<Collection> findByNameContaining(String namePart, int limit, int page);
+    List<Object[]> findAllIdsAndNames();
 
     Optional<Collection> findCollectionByName(String name);
 
@@ -47,12 +54,16 @@ public interface CollectionRepository extends CrudRepository<Collection, Long> {
     void deleteRecipeFromCollection(Long recipeId, Long collectionId);
 
 
+    /**
+     * @param afterId id of the last collection of the previous page, 0 for the first page
+     */
     @Query(value = """
                 SELECT * FROM collections
-                WHERE author_id = :id
-                LIMIT :limit OFFSET :limit * :page
+                WHERE author_id = :id AND id > :afterId
+                ORDER BY id
+                LIMIT :limit OFFSET :offset
             """, nativeQuery = true)
-    List<Collection> findByAuthorIdWithOffset(Long id, int limit, int page);
+    List<Collection> findByAuthorIdWithOffset(Long id, long afterId, int limit, int offset);
 
     @Query(value = """
             SELECT * FROM collections
@@ -1,9 +1,15 @@
 package voicerecipeserver.respository;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import voicerecipeserver.model.entities.Ingredient;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 
@@ -11,4 +17,34 @@ import java.util.Optional;
 public interface IngredientRepository extends CrudRepository<Ingredient, Long> {
     Optional<Ingredient> findByName(String name);
 
+    List<Ingredient> findByNameIn(Collection<String> names);
+
+    /**
+     * @return (recipe id, ingredient id) pairs of all recipes ordered by recipe id
+     */
+    @Query(value = """
+                SELECT recipe_id, ingredient_id FROM ingredients_distribution
+                ORDER BY recipe_id
+            """, nativeQuery = true)
+    List<Object[]> findAllRecipeIngredientIds();
+
+    /**
+     * @return ingredient ids of all recipes by recipe id, in the order of recipe ids
+     */
+    default Map<Long, long[]> findAllRecipeIngredients() {
+        List<Object[]> pairs = findAllRecipeIngredientIds();
+        Map<Long, long[]> result = new LinkedHashMap<>();
+        // pairs are ordered by recipe, so the ingredients of a recipe are consecutive
+        List<Long> ingredients = new ArrayList<>();
+        for (int i = 0; i < pairs.size(); ++i) {
+            long recipeId = ((Number) pairs.get(i)[0]).longValue();
+            ingredients.add(((Number) pairs.get(i)[1]).longValue());
+            if (i + 1 == pairs.size() || ((Number) pairs.get(i + 1)[0]).longValue() != recipeId) {
+                result.put(recipeId, ingredients.stream().mapToLong(Long::longValue).toArray());
+                ingredients.clear();
+            }
+        }
+        return result;
+    }
+
 }
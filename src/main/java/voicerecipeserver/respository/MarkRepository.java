@@ -11,7 +11,7 @@ import voicerecipeserver.model.entities.MarkKey;
 import java.util.Optional;
 
 @Repository
-public interface MarkRepository extends CrudRepository<Mark, MarkKey> {
+public interface MarkRepository extends CrudRepository<Mark, MarkKey>, MarkRepositoryCustom {
     @Query(value = """
                     SELECT * FROM marks m WHERE m.user_id = :userId AND m.recipe_id = :recipeId
             """, nativeQuery = true)
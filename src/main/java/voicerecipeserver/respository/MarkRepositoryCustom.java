@@ -0,0 +1,35 @@
+package voicerecipeserver.respository;
+
+import java.time.Duration;
+
+public interface MarkRepositoryCustom {
+    /**
+     * Reads all marks as plain values through a server-side cursor, without creating entities
+     * or holding the whole table in memory
+     */
+    void forEachMark(MarkConsumer consumer);
+
+    /**
+     * @return the oldest transaction id still running, every change logged by an older transaction is already
+     * committed or rolled back, so reading the changes from this id on later misses none of them
+     */
+    long findMarkChangesCursor();
+
+    /**
+     * Reads changes of the marks table logged by the transactions with an id not less than the cursor, ordered by
+     * the order of logging. A deleted mark is passed as 0.
+     */
+    void forEachMarkChange(long cursor, MarkChangeConsumer consumer);
+
+    void deleteMarkChangesOlderThan(Duration age);
+
+    @FunctionalInterface
+    interface MarkConsumer {
+        void accept(long userId, long recipeId, short mark);
+    }
+
+    @FunctionalInterface
+    interface MarkChangeConsumer {
+        void accept(long userId, long recipeId, short mark);
+    }
+}
@@ -0,0 +1,58 @@
+package voicerecipeserver.respository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+
+public class MarkRepositoryCustomImpl implements MarkRepositoryCustom {
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    @Autowired
+    public MarkRepositoryCustomImpl(JdbcTemplate jdbcTemplate, @Value("${recommend.build.fetch-size:10000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    // postgres driver uses a cursor for the fetch size only with autocommit off, hence the transaction
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachMark(MarkConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT user_id, recipe_id, mark FROM marks",
+                                                                      ResultSet.TYPE_FORWARD_ONLY,
+                                                                      ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getLong(2), rs.getShort(3)));
+    }
+
+    @Override
+    public long findMarkChangesCursor() {
+        Long xmin = jdbcTemplate.queryForObject("SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint",
+                                                Long.class);
+        return xmin == null ? 0 : xmin;
+    }
+
+    // ids are taken while the mark row is locked, so changes of one mark are logged in the order of their commits
+    @Override
+    public void forEachMarkChange(long cursor, MarkChangeConsumer consumer) {
+        jdbcTemplate.query("SELECT user_id, recipe_id, mark FROM mark_changes " +
+                                   "WHERE xact_id >= ?::text::xid8 ORDER BY id",
+                           (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getLong(2), rs.getShort(3)),
+                           cursor);
+    }
+
+    // the age is measured by the database clock, the same one that stamped the changes
+    @Override
+    public void deleteMarkChangesOlderThan(Duration age) {
+        jdbcTemplate.update("DELETE FROM mark_changes WHERE changed_at < clock_timestamp() - ? * interval '1 millisecond'",
+                            age.toMillis());
+    }
+}
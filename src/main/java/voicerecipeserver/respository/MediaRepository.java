@@ -1,8 +1,105 @@
 package voicerecipeserver.respository;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import voicerecipeserver.model.entities.Media;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface MediaRepository extends CrudRepository<Media, Long> {}
+public interface MediaRepository extends CrudRepository<Media, Long>, MediaRepositoryCustom {
+    /**
+     * @return everything about the media but its content
+     */
+    @Query(value = """
+                SELECT m.contentHash AS contentHash, m.size AS size, m.createdAt AS createdAt,
+                       m.mediaType.mimeType AS mimeType
+                FROM Media m WHERE m.id = :id
+            """)
+    Optional<Metadata> findMetadataById(Long id);
+
+    /**
+     * @return ids of the media with the content in file_data, ordered
+     */
+    @Query(value = """
+                SELECT id FROM media
+                WHERE content_hash IS NULL AND id > :afterId
+                ORDER BY id
+                LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findIdsStoredInDatabase(long afterId, int limit);
+
+    /**
+     * Replaces file_data of the media with the address of its content in the media storage
+     *
+     * @return 0 if the content was moved meanwhile
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+                UPDATE media SET content_hash = :hash, size = :size, file_data = NULL
+                WHERE id = :id AND content_hash IS NULL
+            """, nativeQuery = true)
+    int moveToStorage(long id, String hash, long size);
+
+    /**
+     * @param sourceHash hash of the original content
+     * @param variant    key of the {@link voicerecipeserver.storage.ImageVariant}
+     */
+    @Query(value = """
+                SELECT variant_hash FROM media_variants
+                WHERE source_hash = :sourceHash AND variant = :variant
+            """, nativeQuery = true)
+    Optional<String> findVariantHash(String sourceHash, String variant);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+                INSERT INTO media_variants(source_hash, variant, variant_hash)
+                VALUES (:sourceHash, :variant, :variantHash)
+                ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    void saveVariant(String sourceHash, String variant, String variantHash);
+
+    /**
+     * @return the hashes referenced by a media or a media variant
+     */
+    @Query(value = """
+                SELECT content_hash FROM media WHERE content_hash IN (:hashes)
+                UNION
+                SELECT source_hash FROM media_variants WHERE source_hash IN (:hashes)
+                UNION
+                SELECT variant_hash FROM media_variants WHERE variant_hash IN (:hashes)
+            """, nativeQuery = true)
+    List<String> findReferencedHashes(Collection<String> hashes);
+
+    /**
+     * Deletes the variants of the contents no media references anymore
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+                DELETE FROM media_variants v
+                WHERE NOT EXISTS (SELECT 1 FROM media m WHERE m.content_hash = v.source_hash)
+            """, nativeQuery = true)
+    int deleteOrphanedVariants();
+
+    interface Metadata {
+        /**
+         * @return null if the content is in file_data
+         */
+        String getContentHash();
+
+        Long getSize();
+
+        Instant getCreatedAt();
+
+        String getMimeType();
+    }
+}
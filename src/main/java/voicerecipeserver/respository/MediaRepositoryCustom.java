@@ -0,0 +1,22 @@
+package voicerecipeserver.respository;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface MediaRepositoryCustom {
+    /**
+     * Reads the file_data of the media as a stream, without creating the entity. The driver still loads the whole
+     * value of the row into memory, one row at a time.
+     *
+     * @return false if the media doesn't exist or its content is not in the database
+     */
+    boolean readFileData(long id, FileDataConsumer consumer) throws IOException;
+
+    @FunctionalInterface
+    interface FileDataConsumer {
+        /**
+         * @param data valid only until the method returns
+         */
+        void accept(InputStream data) throws IOException;
+    }
+}
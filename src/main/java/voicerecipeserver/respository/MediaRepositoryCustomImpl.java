@@ -0,0 +1,37 @@
+package voicerecipeserver.respository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+public class MediaRepositoryCustomImpl implements MediaRepositoryCustom {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public MediaRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean readFileData(long id, FileDataConsumer consumer) throws IOException {
+        boolean[] found = {false};
+        try {
+            jdbcTemplate.query("SELECT file_data FROM media WHERE id = ? AND file_data IS NOT NULL",
+                               (RowCallbackHandler) rs -> {
+                                   try (InputStream data = rs.getBinaryStream(1)) {
+                                       consumer.accept(data);
+                                   } catch (IOException e) {
+                                       throw new UncheckedIOException(e);
+                                   }
+                                   found[0] = true;
+                               }, id);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return found[0];
+    }
+}
@@ -12,66 +12,106 @@ import java.util.Optional;
 @Repository
 public interface RecipeRepository extends CrudRepository<Recipe, Long> {
 
+    /*
+     * List queries use keyset pagination: the page starts after the sort key of the last row of the previous page,
+     * see voicerecipeserver.utils.PageCursor. The offset is only used for pages requested by number.
+     * https://medium.com/swlh/sql-pagination-you-are-probably-doing-it-wrong-d0f2719cc166
+     */
+
+    /**
+     * Recipes are ordered by rank descending, then by name and id.
+     *
+     * @param query     full-text query in the to_tsquery syntax, e.g. from
+     *                  {@link voicerecipeserver.utils.SearchUtils#toPrefixTsQuery(String)}
+     * @param afterRank rank of the last recipe of the previous page, {@link Float#MAX_VALUE} for the first page
+     * @param afterName name of the last recipe of the previous page, empty for the first page
+     * @param afterId   id of the last recipe of the previous page, 0 for the first page
+     */
     @Query(value = """
-                (
-                    SELECT * FROM recipes
-                    WHERE name ILIKE :namePart || '%'
-                    ORDER BY name
-                )
-                UNION
-                (
-                    SELECT * FROM recipes
-                    WHERE name ILIKE '% ' || :namePart || '%'
-                    ORDER BY name
-                )
-                LIMIT :limit OFFSET :limit * :page
+                SELECT recipes.* FROM recipes
+                WHERE search_vector @@ to_tsquery('russian', :query)
+                  AND (-ts_rank(search_vector, to_tsquery('russian', :query)), name, id)
+                      > (-CAST(:afterRank AS real), :afterName, :afterId)
+                ORDER BY ts_rank(search_vector, to_tsquery('russian', :query)) DESC, name, id
+                LIMIT :limit OFFSET :offset
             """, nativeQuery = true)
-    List<Recipe> findByNameContaining(String namePart, int limit, int page);
+    List<Recipe> searchByName(String query, float afterRank, String afterName, long afterId, int limit, int offset);
 
-    // https://medium.com/swlh/sql-pagination-you-are-probably-doing-it-wrong-d0f2719cc166 - performance issue
-    // вообще хотелось бы этот метод в репозиторий коллекций добавить, но там проблема с конвертацией.
     @Query(value = """
-                SELECT recipes.* FROM recipes
-                JOIN collections_distribution distr ON recipes.id = distr.recipe_id
-                WHERE distr.collection_id = :collectionId
-                ORDER BY distr.recipe_id
-                LIMIT :numRecipes OFFSET :numRecipes * :page
+                SELECT ts_rank(search_vector, to_tsquery('russian', :query)) FROM recipes
+                WHERE id = :id
             """, nativeQuery = true)
-    List<Recipe> findRecipesWithOffsetFromCollectionById(int numRecipes, int page, long collectionId);
+    float findSearchRank(String query, long id);
 
-    Optional<Recipe> findRecipeByMediaId(Long mediaId);
+    /**
+     * @return (id, cook_time_mins, prep_time_mins, kilocalories, servings, avg_mark) of all recipes ordered by id,
+     * avg_mark is null for the recipes without marks
+     */
+    @Query(value = """
+                SELECT recipes.id, cook_time_mins, prep_time_mins, kilocalories, servings, avg_marks.avg_mark
+                FROM recipes
+                LEFT JOIN avg_marks ON recipes.id = avg_marks.recipe_id AND avg_marks.quantity > 0
+                ORDER BY recipes.id
+            """, nativeQuery = true)
+    List<Object[]> findAllFacetValues();
 
+    /**
+     * @return (id, name) pairs of all recipes
+     */
     @Query(value = """
-                SELECT recipes.* FROM recipes
+                SELECT id, name FROM recipes
+            """, nativeQuery = true)
+    List<Object[]> findAllIdsAndNames();
+
+    /**
+     * @return (id, name, number of marks) of all recipes
+     */
+    @Query(value = """
+                SELECT recipes.id, recipes.name, COALESCE(avg_marks.quantity, 0) FROM recipes
                 LEFT JOIN avg_marks ON recipes.id = avg_marks.recipe_id
-                WHERE avg_marks.recipe_id IS NULL
-                ORDER BY random()
+            """, nativeQuery = true)
+    List<Object[]> findAllNamesAndMarksCounts();
+
+    Optional<Recipe> findRecipeByMediaId(Long mediaId);
+
+    @Query(value = """
+                SELECT recipe_id FROM avg_marks
+                WHERE quantity > 0
+                ORDER BY avg_mark DESC, recipe_id
                 LIMIT :limit
             """, nativeQuery = true)
-    List<Recipe> findRandomWithLimit(int limit);
+    List<Long> findTopRatedIds(int limit);
 
     @Query(value = """
-               SELECT recipes.*
-               FROM recipes
-               JOIN avg_marks ON recipes.id = avg_marks.recipe_id
-               ORDER BY avg_mark DESC
-               LIMIT :limit OFFSET :limit * :page
+                SELECT recipes.id FROM recipes
+                LEFT JOIN avg_marks ON recipes.id = avg_marks.recipe_id
+                WHERE avg_marks.recipe_id IS NULL OR avg_marks.quantity = 0
+                ORDER BY recipes.id DESC
+                LIMIT :limit
             """, nativeQuery = true)
-    List<Recipe> findTopRecipesWithLimitAndOffset(int limit, int page);
+    List<Long> findUnratedIds(int limit);
 
+    /**
+     * @param afterId id of the last recipe of the previous page, 0 for the first page
+     */
     @Query(value = """
                 SELECT recipes.* FROM recipes
                 JOIN categories_distribution distr ON recipes.id = distr.recipe_id
-                WHERE category_id = :id
-                LIMIT :limit OFFSET :limit * :page
+                WHERE distr.category_id = :id AND distr.recipe_id > :afterId
+                ORDER BY distr.recipe_id
+                LIMIT :limit OFFSET :offset
             """, nativeQuery = true)
-    List<Recipe> findByCategoryId(Long id, int limit, int page);
+    List<Recipe> findByCategoryId(Long id, long afterId, int limit, int offset);
 
+    /**
+     * @param afterId id of the last recipe of the previous page, 0 for the first page
+     */
     @Query(value = """
                 SELECT recipes.* FROM recipes
                 JOIN collections_distribution distr ON recipes.id = distr.recipe_id
-                WHERE collection_id = :id
-                LIMIT :limit OFFSET :limit * :page
+                WHERE distr.collection_id = :id AND distr.recipe_id > :afterId
+                ORDER BY distr.recipe_id
+                LIMIT :limit OFFSET :offset
             """, nativeQuery = true)
-    List<Recipe> findByCollectionId(Long id, int limit, int page);
+    List<Recipe> findByCollectionId(Long id, long afterId, int limit, int offset);
 }
@@ -11,20 +11,26 @@ import java.util.Optional;
 public interface UserRepository extends CrudRepository<User, Long> {
     Optional<User> findByUid(String uid);
 
+    /**
+     * Users with a login word starting with the part, ordered by login
+     *
+     * @param afterUid login of the last user of the previous page, empty for the first page
+     */
     @Query(value = """
-                    (
-                        SELECT * FROM users
-                        WHERE uid ILIKE :namePart || '%'
-                        ORDER BY uid
-                    )
-                    UNION
-                    (
-                        SELECT * FROM users
-                        WHERE uid ILIKE '% ' || :namePart || '%'
-                        ORDER BY uid
-                    )
-                    LIMIT :limit OFFSET :limit * :page
+                    SELECT * FROM users
+                    WHERE (uid ILIKE :namePart || '%' OR uid ILIKE '% ' || :namePart || '%')
+                      AND uid > :afterUid
+                    ORDER BY uid
+                    LIMIT :limit OFFSET :offset
             """, nativeQuery = true)
-    List<User> findByUidContaining(String namePart, Integer limit, Integer page);
+    List<User> findByUidContaining(String namePart, String afterUid, int limit, int offset);
+
+    /**
+     * @return (id, uid) pairs of all users
+     */
+    @Query(value = """
+                    SELECT id, uid FROM users
+            """, nativeQuery = true)
+    List<Object[]> findAllIdsAndUids();
 
 }
@@ -0,0 +1,112 @@
+package voicerecipeserver.search;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import voicerecipeserver.respository.CollectionRepository;
+import voicerecipeserver.respository.RecipeRepository;
+import voicerecipeserver.respository.UserRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static voicerecipeserver.utils.TransactionUtils.afterCommit;
+
+/**
+ * Type-ahead suggestions for recipes, collections and users answered from memory. The names are loaded once at
+ * startup and then updated by the services that change them, inside a transaction the update is applied after
+ * commit. The updates applied while the names are read are replayed on the loaded indexes.
+ */
+@Component
+public class Autocomplete {
+    private final RecipeRepository recipeRepository;
+    private final CollectionRepository collectionRepository;
+    private final UserRepository userRepository;
+    private final ReloadableIndex<Indexes> indexes = new ReloadableIndex<>(new Indexes());
+
+    @Autowired
+    public Autocomplete(RecipeRepository recipeRepository, CollectionRepository collectionRepository,
+                        UserRepository userRepository) {
+        this.recipeRepository = recipeRepository;
+        this.collectionRepository = collectionRepository;
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        indexes.reload(() -> {
+            Indexes loaded = new Indexes();
+            putAll(loaded.recipes(), recipeRepository.findAllIdsAndNames());
+            putAll(loaded.collections(), collectionRepository.findAllIdsAndNames());
+            putAll(loaded.users(), userRepository.findAllIdsAndUids());
+            return loaded;
+        });
+    }
+
+    public void putRecipe(long id, String name) {
+        update(Indexes::recipes, id, name);
+    }
+
+    public void removeRecipe(long id) {
+        update(Indexes::recipes, id, null);
+    }
+
+    public void putCollection(long id, String name) {
+        update(Indexes::collections, id, name);
+    }
+
+    public void removeCollection(long id) {
+        update(Indexes::collections, id, null);
+    }
+
+    public void putUser(long id, String login) {
+        update(Indexes::users, id, login);
+    }
+
+    public List<Suggestion> suggestRecipes(String query, int n) {
+        return suggest(Indexes::recipes, query, n);
+    }
+
+    public List<Suggestion> suggestCollections(String query, int n) {
+        return suggest(Indexes::collections, query, n);
+    }
+
+    public List<Suggestion> suggestUsers(String query, int n) {
+        return suggest(Indexes::users, query, n);
+    }
+
+    private List<Suggestion> suggest(Function<Indexes, AutocompleteIndex> kind, String query, int n) {
+        return indexes.read(loaded -> {
+            AutocompleteIndex index = kind.apply(loaded);
+            return Arrays.stream(index.suggest(query, n)).mapToObj(id -> new Suggestion(id, index.nameOf(id)))
+                    .toList();
+        });
+    }
+
+    private void update(Function<Indexes, AutocompleteIndex> kind, long id, String name) {
+        afterCommit(() -> indexes.update(loaded -> {
+            AutocompleteIndex index = kind.apply(loaded);
+            if (name == null) {
+                index.remove(id);
+            } else {
+                index.put(id, name);
+            }
+        }));
+    }
+
+    private static void putAll(AutocompleteIndex index, List<Object[]> names) {
+        for (Object[] name : names) {
+            index.put(((Number) name[0]).longValue(), (String) name[1]);
+        }
+    }
+
+    public record Suggestion(long id, String name) {
+    }
+
+    private record Indexes(AutocompleteIndex recipes, AutocompleteIndex collections, AutocompleteIndex users) {
+        Indexes() {
+            this(new AutocompleteIndex(), new AutocompleteIndex(), new AutocompleteIndex());
+        }
+    }
+}
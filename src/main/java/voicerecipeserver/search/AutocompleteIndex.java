@@ -0,0 +1,172 @@
+package voicerecipeserver.search;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory type-ahead index of names. Names are normalized to lower case words separated by single spaces, the
+ * words are kept in a sorted map, so a prefix of a word is a range lookup. Names containing the query in the middle
+ * of a word are found through trigram postings.
+ * <p>
+ * Suggestions are ranked: names starting with the query, then names with a word starting with it, then names
+ * containing it. Shorter names go first within a rank.
+ * <p>
+ * Not thread-safe, access is synchronized by {@link Autocomplete}.
+ */
+public class AutocompleteIndex {
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    /**
+     * Upper bound of the names checked per lookup, so a one letter query doesn't rank the whole catalog
+     */
+    private static final int MAX_CANDIDATES = 1000;
+
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<Long, String> displayNames = new HashMap<>();
+    private final TreeMap<String, Set<Long>> words = new TreeMap<>();
+    private final Map<String, Set<Long>> trigrams = new HashMap<>();
+
+    public void put(long id, String name) {
+        remove(id);
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        names.put(id, normalized);
+        displayNames.put(id, name);
+        for (String word : normalized.split(" ")) {
+            words.computeIfAbsent(word, key -> new HashSet<>()).add(id);
+        }
+        for (String trigram : trigrams(normalized)) {
+            trigrams.computeIfAbsent(trigram, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    public void remove(long id) {
+        String normalized = names.remove(id);
+        if (normalized == null) {
+            return;
+        }
+        displayNames.remove(id);
+        for (String word : normalized.split(" ")) {
+            removePosting(words, word, id);
+        }
+        for (String trigram : trigrams(normalized)) {
+            removePosting(trigrams, trigram, id);
+        }
+    }
+
+    /**
+     * @return ids of at most n best matching names
+     */
+    public long[] suggest(String query, int n) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || n <= 0) {
+            return new long[0];
+        }
+        Map<Long, Integer> ranks = new HashMap<>();
+        String firstWord = normalized.split(" ")[0];
+        for (Set<Long> ids : words.subMap(firstWord, firstWord + Character.MAX_VALUE).values()) {
+            for (Long id : ids) {
+                int rank = rank(names.get(id), normalized);
+                if (rank >= 0) {
+                    ranks.putIfAbsent(id, rank);
+                }
+            }
+            if (ranks.size() >= MAX_CANDIDATES) {
+                break;
+            }
+        }
+        if (ranks.size() < n && normalized.length() >= 3) {
+            for (Long id : trigramCandidates(normalized)) {
+                if (ranks.size() >= MAX_CANDIDATES) {
+                    break;
+                }
+                int rank = rank(names.get(id), normalized);
+                if (rank >= 0) {
+                    ranks.putIfAbsent(id, rank);
+                }
+            }
+        }
+        return ranks.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<Long, Integer> e) -> e.getValue())
+                                .thenComparingInt(e -> names.get(e.getKey()).length())
+                                .thenComparing(e -> names.get(e.getKey()))
+                                .thenComparing(Map.Entry::getKey))
+                .limit(n)
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+    }
+
+    /**
+     * @return the name as it was put, null if the id is not indexed
+     */
+    public String nameOf(long id) {
+        return displayNames.get(id);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * @return lower case words of the text separated by single spaces, ё is replaced by е
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringJoiner normalized = new StringJoiner(" ");
+        Matcher matcher = WORD.matcher(text.toLowerCase(Locale.ROOT).replace('\u0451', '\u0435'));
+        while (matcher.find()) {
+            normalized.add(matcher.group());
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * @return 0 if the name starts with the query, 1 if a word of the name does, 2 if the name contains the query,
+     * -1 otherwise
+     */
+    private static int rank(String name, String query) {
+        if (name.startsWith(query)) {
+            return 0;
+        }
+        if (name.contains(" " + query)) {
+            return 1;
+        }
+        return name.contains(query) ? 2 : -1;
+    }
+
+    private Set<Long> trigramCandidates(String query) {
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String trigram : trigrams(query)) {
+            Set<Long> posting = trigrams.get(trigram);
+            if (posting == null) {
+                return Set.of();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        Set<Long> candidates = new LinkedHashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !candidates.isEmpty(); ++i) {
+            candidates.retainAll(postings.get(i));
+        }
+        return candidates;
+    }
+
+    private static Set<String> trigrams(String normalized) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 3 <= normalized.length(); ++i) {
+            result.add(normalized.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+}
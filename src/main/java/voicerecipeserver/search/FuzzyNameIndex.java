@@ -0,0 +1,188 @@
+package voicerecipeserver.search;
+
+import java.util.*;
+
+/**
+ * In-memory typo-tolerant index of names. The distinct words of the names are kept in a trie, a query word is looked
+ * up by walking the trie with a row of the Damerau-Levenshtein distance table per node, which is a simulation of the
+ * Levenshtein automaton of the word. A branch is cut as soon as every cell of its row exceeds the allowed distance,
+ * so the cost of a lookup depends on the distance and not on the size of the dictionary.
+ * <p>
+ * A name matches when every query word is within the allowed distance of one of its words. Matches are ranked by the
+ * sum of the distances, then by popularity.
+ * <p>
+ * Not thread-safe, access is synchronized by {@link FuzzySearch}.
+ */
+public class FuzzyNameIndex {
+    /**
+     * Only the first query words are looked up, the lookups are the dominant cost
+     */
+    private static final int MAX_QUERY_WORDS = 8;
+
+    private final Node root = new Node();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, String[]> names = new HashMap<>();
+    private final Map<Long, Long> popularity = new HashMap<>();
+
+    /**
+     * Adds the name or replaces the name with the id, the popularity is kept
+     */
+    public void put(long id, String name) {
+        removeWords(id);
+        String normalized = AutocompleteIndex.normalize(name);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        String[] words = normalized.split(" ");
+        names.put(id, words);
+        for (String word : words) {
+            Set<Long> ids = postings.get(word);
+            if (ids == null) {
+                ids = new HashSet<>();
+                postings.put(word, ids);
+                insert(word);
+            }
+            ids.add(id);
+        }
+    }
+
+    public void remove(long id) {
+        removeWords(id);
+        popularity.remove(id);
+    }
+
+    /**
+     * @param popularity number of marks of the name's recipe
+     */
+    public void setPopularity(long id, long popularity) {
+        this.popularity.put(id, popularity);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * @return ids of at most n best matching names, the closest and then the most popular first
+     */
+    public long[] search(String query, int n) {
+        String normalized = AutocompleteIndex.normalize(query);
+        if (normalized.isEmpty() || n <= 0) {
+            return new long[0];
+        }
+        String[] queryWords = normalized.split(" ");
+        Map<Long, Integer> distances = null;
+        for (int i = 0; i < queryWords.length && i < MAX_QUERY_WORDS; ++i) {
+            Map<Long, Integer> wordDistances = new HashMap<>();
+            findWords(queryWords[i]).forEach((word, distance) -> {
+                for (Long id : postings.get(word)) {
+                    wordDistances.merge(id, distance, Math::min);
+                }
+            });
+            if (distances == null) {
+                distances = wordDistances;
+            } else {
+                distances.keySet().retainAll(wordDistances.keySet());
+                distances.replaceAll((id, distance) -> distance + wordDistances.get(id));
+            }
+            if (distances.isEmpty()) {
+                return new long[0];
+            }
+        }
+        return distances.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<Long, Integer> e) -> e.getValue())
+                                .thenComparing(e -> popularity.getOrDefault(e.getKey(), 0L), Comparator.reverseOrder())
+                                .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()))
+                .limit(n)
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+    }
+
+    /**
+     * @return edit distance allowed for a word: none for very short words, where any typo is another word, one for
+     * short words and two for the rest
+     */
+    static int maxDistance(String word) {
+        int length = word.codePointCount(0, word.length());
+        return length <= 2 ? 0 : length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * @return dictionary words within {@link #maxDistance} of the word with their distances
+     */
+    Map<String, Integer> findWords(String word) {
+        Map<String, Integer> found = new HashMap<>();
+        int maxDistance = maxDistance(word);
+        int[] firstRow = new int[word.length() + 1];
+        for (int i = 0; i < firstRow.length; ++i) {
+            firstRow[i] = i;
+        }
+        for (Map.Entry<Character, Node> child : root.children.entrySet()) {
+            walk(child.getValue(), child.getKey(), (char) 0, word, null, firstRow, maxDistance, found);
+        }
+        return found;
+    }
+
+    /**
+     * Fills the row of the node's character from the rows of its parent and grandparent, optimal string alignment
+     * distance, so a swap of two adjacent letters is a single edit
+     */
+    private static void walk(Node node, char letter, char previousLetter, String word, int[] grandparentRow,
+                             int[] parentRow, int maxDistance, Map<String, Integer> found) {
+        int[] row = new int[parentRow.length];
+        row[0] = parentRow[0] + 1;
+        int rowMin = row[0];
+        for (int i = 1; i < row.length; ++i) {
+            char wordLetter = word.charAt(i - 1);
+            int cost = wordLetter == letter ? 0 : 1;
+            row[i] = Math.min(Math.min(row[i - 1] + 1, parentRow[i] + 1), parentRow[i - 1] + cost);
+            if (grandparentRow != null && i > 1 && wordLetter == previousLetter && word.charAt(i - 2) == letter) {
+                row[i] = Math.min(row[i], grandparentRow[i - 2] + 1);
+            }
+            rowMin = Math.min(rowMin, row[i]);
+        }
+        if (node.word != null && row[row.length - 1] <= maxDistance) {
+            found.put(node.word, row[row.length - 1]);
+        }
+        if (rowMin > maxDistance) {
+            return;
+        }
+        for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+            walk(child.getValue(), child.getKey(), letter, word, parentRow, row, maxDistance, found);
+        }
+    }
+
+    private void insert(String word) {
+        Node node = root;
+        for (int i = 0; i < word.length(); ++i) {
+            node = node.children.computeIfAbsent(word.charAt(i), letter -> new Node());
+        }
+        node.word = word;
+    }
+
+    private void removeWords(long id) {
+        String[] words = names.remove(id);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            Set<Long> ids = postings.get(word);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(word);
+                // the empty branch is left in the trie, it is dropped with the next rebuild
+                Node node = root;
+                for (int i = 0; i < word.length() && node != null; ++i) {
+                    node = node.children.get(word.charAt(i));
+                }
+                if (node != null) {
+                    node.word = null;
+                }
+            }
+        }
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private String word;
+    }
+}
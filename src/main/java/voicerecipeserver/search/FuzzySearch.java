@@ -0,0 +1,58 @@
+package voicerecipeserver.search;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import voicerecipeserver.respository.RecipeRepository;
+
+import static voicerecipeserver.utils.TransactionUtils.afterCommit;
+
+/**
+ * Typo-tolerant recipe search by name answered from a {@link FuzzyNameIndex}. The names are updated together with
+ * the recipes, the popularity of the recipes changes with every mark, so it is only refreshed by the background
+ * rebuild of the index.
+ */
+@Component
+public class FuzzySearch {
+    private final RecipeRepository recipeRepository;
+    private final ReloadableIndex<FuzzyNameIndex> index = new ReloadableIndex<>(new FuzzyNameIndex());
+
+    @Autowired
+    public FuzzySearch(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${search.fuzzy.refresh-ms:300000}",
+            fixedDelayString = "${search.fuzzy.refresh-ms:300000}")
+    public void load() {
+        index.reload(() -> {
+            FuzzyNameIndex loaded = new FuzzyNameIndex();
+            for (Object[] row : recipeRepository.findAllNamesAndMarksCounts()) {
+                long recipeId = ((Number) row[0]).longValue();
+                loaded.put(recipeId, (String) row[1]);
+                loaded.setPopularity(recipeId, ((Number) row[2]).longValue());
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Indexes the new name of the recipe. Inside a transaction the index is updated after commit.
+     */
+    public void putRecipe(long recipeId, String name) {
+        afterCommit(() -> index.update(names -> names.put(recipeId, name)));
+    }
+
+    public void removeRecipe(long recipeId) {
+        afterCommit(() -> index.update(names -> names.remove(recipeId)));
+    }
+
+    /**
+     * @return ids of at most n recipes with names close to the query, the closest and then the most popular first
+     */
+    public long[] search(String query, int n) {
+        return index.read(names -> names.search(query, n));
+    }
+}
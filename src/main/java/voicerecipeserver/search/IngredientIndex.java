@@ -0,0 +1,168 @@
+package voicerecipeserver.search;
+
+import voicerecipeserver.recommend.TopN;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index from an ingredient to the sorted ids of the recipes with it. A query with the ingredients a user has
+ * reads only the posting lists of those ingredients: recipes with all of them are found by intersecting the lists
+ * with skip pointers, recipes with any of them by merging the lists.
+ * <p>
+ * Recipes are ranked by the number of their ingredients the user doesn't have, then by the number of the matched
+ * ones, so the recipes that can be cooked right away go first.
+ * <p>
+ * Not thread-safe, access is synchronized by {@link RecipesByIngredients}.
+ */
+public class IngredientIndex {
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    /**
+     * Distinct ingredients of every indexed recipe
+     */
+    private final Map<Long, long[]> recipes = new HashMap<>();
+
+    /**
+     * Adds the recipe or replaces its previous ingredients. A recipe without ingredients is not indexed.
+     */
+    public void put(long recipeId, long[] ingredientIds) {
+        remove(recipeId);
+        long[] ingredients = Arrays.stream(ingredientIds).sorted().distinct().toArray();
+        if (ingredients.length == 0) {
+            return;
+        }
+        recipes.put(recipeId, ingredients);
+        for (long ingredient : ingredients) {
+            postings.computeIfAbsent(ingredient, id -> new PostingList()).add(recipeId);
+        }
+    }
+
+    public void remove(long recipeId) {
+        long[] ingredients = recipes.remove(recipeId);
+        if (ingredients == null) {
+            return;
+        }
+        for (long ingredient : ingredients) {
+            PostingList posting = postings.get(ingredient);
+            posting.remove(recipeId);
+            if (posting.size() == 0) {
+                postings.remove(ingredient);
+            }
+        }
+    }
+
+    /**
+     * @param all true to select only the recipes with every one of the ingredients, false for any of them
+     * @return ids of at most n recipes, the ones with the fewest missing ingredients first, then the ones with the
+     * most matched ingredients, then by id
+     */
+    public long[] search(long[] ingredientIds, boolean all, int n) {
+        long[] query = Arrays.stream(ingredientIds).sorted().distinct().toArray();
+        List<PostingList> lists = new ArrayList<>();
+        for (long ingredient : query) {
+            PostingList posting = postings.get(ingredient);
+            if (posting != null) {
+                lists.add(posting);
+            } else if (all) {
+                return new long[0];
+            }
+        }
+        if (lists.isEmpty() || n <= 0) {
+            return new long[0];
+        }
+        Ranking ranking = new Ranking(n, query.length);
+        if (all) {
+            intersect(lists, ranking);
+        } else {
+            merge(lists, ranking);
+        }
+        return ranking.drain();
+    }
+
+    public int size() {
+        return recipes.size();
+    }
+
+    private static void intersect(List<PostingList> lists, Ranking ranking) {
+        // the smallest list drives the intersection, the others only skip forward to its ids
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        PostingList smallest = lists.get(0);
+        int[] positions = new int[lists.size()];
+        candidates:
+        for (int i = 0; i < smallest.size(); ++i) {
+            long recipeId = smallest.get(i);
+            for (int k = 1; k < lists.size(); ++k) {
+                PostingList list = lists.get(k);
+                positions[k] = list.advance(positions[k], recipeId);
+                if (positions[k] == list.size()) {
+                    return;
+                }
+                if (list.get(positions[k]) != recipeId) {
+                    continue candidates;
+                }
+            }
+            ranking.offer(recipeId, lists.size());
+        }
+    }
+
+    private static void merge(List<PostingList> lists, Ranking ranking) {
+        int[] positions = new int[lists.size()];
+        while (true) {
+            long recipeId = Long.MAX_VALUE;
+            for (int k = 0; k < lists.size(); ++k) {
+                if (positions[k] < lists.get(k).size()) {
+                    recipeId = Math.min(recipeId, lists.get(k).get(positions[k]));
+                }
+            }
+            if (recipeId == Long.MAX_VALUE) {
+                return;
+            }
+            int matched = 0;
+            for (int k = 0; k < lists.size(); ++k) {
+                if (positions[k] < lists.get(k).size() && lists.get(k).get(positions[k]) == recipeId) {
+                    ++matched;
+                    ++positions[k];
+                }
+            }
+            ranking.offer(recipeId, matched);
+        }
+    }
+
+    /**
+     * Best n recipes of the candidates offered in the id order
+     */
+    private class Ranking {
+        private final TopN top;
+        private final int queryLength;
+        private long[] candidates = new long[16];
+        private int size;
+
+        Ranking(int n, int queryLength) {
+            this.top = new TopN(n);
+            this.queryLength = queryLength;
+        }
+
+        void offer(long recipeId, int matched) {
+            int missing = recipes.get(recipeId).length - matched;
+            if (size == candidates.length) {
+                candidates = Arrays.copyOf(candidates, size * 2);
+            }
+            candidates[size] = recipeId;
+            // matched / (queryLength + 1) < 1, so it only orders the recipes with the same number of missing ones
+            top.offer(size++, -missing + (double) matched / (queryLength + 1));
+        }
+
+        long[] drain() {
+            int[] best = top.drainDescending();
+            long[] result = new long[best.length];
+            for (int i = 0; i < best.length; ++i) {
+                result[i] = candidates[best[i]];
+            }
+            return result;
+        }
+    }
+}
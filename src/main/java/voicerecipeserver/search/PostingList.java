@@ -0,0 +1,63 @@
+package voicerecipeserver.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted recipe ids of one ingredient. Skip pointers are implicit: every {@link #skipStep()}-th id of the array is a
+ * skip target, so {@link #advance} jumps over whole blocks of smaller ids and reads at most one block linearly.
+ */
+final class PostingList {
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        ++size;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        --size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(int position) {
+        return ids[position];
+    }
+
+    /**
+     * @return the first position at or after from with an id not less than the target, {@link #size()} if there is
+     * no such id
+     */
+    int advance(int from, long target) {
+        int step = skipStep();
+        int position = from;
+        while (position + step < size && ids[position + step] <= target) {
+            position += step;
+        }
+        while (position < size && ids[position] < target) {
+            ++position;
+        }
+        return position;
+    }
+
+    private int skipStep() {
+        return Math.max(1, (int) Math.sqrt(size));
+    }
+}
@@ -0,0 +1,182 @@
+package voicerecipeserver.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Columnar in-memory store of the filterable recipe attributes: one float array per {@link RecipeFacet} with NaN for
+ * unknown values and one bitset per category, all addressed by the position of the recipe. A filter request is a
+ * single pass over the columns which selects the page and counts the facet buckets at once.
+ * <p>
+ * Facet counts are disjunctive: the buckets of a facet are counted with all the filters except the facet's own, so
+ * the counts show how many recipes another range of the facet would give.
+ * <p>
+ * Positions are assigned in the order the recipes are added. Recipe ids are generated increasing and the store is
+ * loaded ordered by id, so the positions are in the id order and the newest recipes are at the end.
+ * <p>
+ * Not thread-safe, access is synchronized by {@link RecipeFacets}.
+ */
+public class RecipeAttributeStore {
+    private static final RecipeFacet[] FACETS = RecipeFacet.values();
+
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private final BitSet present = new BitSet();
+    private final Map<Long, BitSet> categories = new HashMap<>();
+    private long[] ids = new long[16];
+    private final float[][] columns = new float[FACETS.length][];
+    private int size;
+
+    public RecipeAttributeStore() {
+        for (int f = 0; f < FACETS.length; ++f) {
+            columns[f] = new float[ids.length];
+        }
+    }
+
+    /**
+     * Sets the value of the attribute, adds the recipe with unknown values of the other attributes if it is new
+     *
+     * @param value NaN if the value is unknown
+     */
+    public void set(long recipeId, RecipeFacet facet, float value) {
+        // the position is taken first, adding the recipe may replace the column
+        int position = positionOf(recipeId);
+        columns[facet.ordinal()][position] = value;
+    }
+
+    public void remove(long recipeId) {
+        Integer position = positions.remove(recipeId);
+        if (position == null) {
+            return;
+        }
+        present.clear(position);
+        categories.values().forEach(category -> category.clear(position));
+    }
+
+    public void addToCategory(long recipeId, long categoryId) {
+        categories.computeIfAbsent(categoryId, id -> new BitSet()).set(positionOf(recipeId));
+    }
+
+    public void removeFromCategory(long recipeId, long categoryId) {
+        Integer position = positions.get(recipeId);
+        BitSet category = categories.get(categoryId);
+        if (position != null && category != null) {
+            category.clear(position);
+        }
+    }
+
+    public boolean contains(long recipeId) {
+        return positions.containsKey(recipeId);
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * @param beforeId only the recipes with smaller ids get to the page, {@link Long#MAX_VALUE} for the first page
+     * @param offset   number of the matching recipes before the page to skip
+     * @return page of the matching recipe ids, the newest first, and the facet counts
+     */
+    public FilterResult filter(RecipeFilter filter, long beforeId, int offset, int limit) {
+        int[][] counts = new int[FACETS.length][];
+        for (int f = 0; f < FACETS.length; ++f) {
+            counts[f] = new int[FACETS[f].getBucketsCount()];
+        }
+        BitSet category = filter.getCategoryId() == null ? null :
+                categories.getOrDefault(filter.getCategoryId(), new BitSet());
+        // recipes passing all the filters except the category one, for the category counts
+        BitSet exceptCategory = new BitSet(size);
+        long[] page = new long[limit];
+        int pageSize = 0;
+        int skipped = 0;
+        int total = 0;
+        for (int position = present.previousSetBit(size - 1); position >= 0;
+             position = present.previousSetBit(position - 1)) {
+            int failedFacet = -1;
+            int failures = 0;
+            for (int f = 0; f < FACETS.length && failures < 2; ++f) {
+                if (!filter.accepts(f, columns[f][position])) {
+                    failedFacet = f;
+                    ++failures;
+                }
+            }
+            if (failures > 1) {
+                continue;
+            }
+            boolean inCategory = category == null || category.get(position);
+            if (failures == 1) {
+                // counts only in its own facet, where the other buckets are the alternatives to the chosen range
+                if (inCategory) {
+                    countBucket(counts, failedFacet, position);
+                }
+                continue;
+            }
+            exceptCategory.set(position);
+            if (!inCategory) {
+                continue;
+            }
+            ++total;
+            for (int f = 0; f < FACETS.length; ++f) {
+                countBucket(counts, f, position);
+            }
+            if (ids[position] < beforeId && pageSize < limit) {
+                if (skipped < offset) {
+                    ++skipped;
+                } else {
+                    page[pageSize++] = ids[position];
+                }
+            }
+        }
+        Map<Long, Integer> categoryCounts = new LinkedHashMap<>();
+        categories.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            BitSet matching = (BitSet) entry.getValue().clone();
+            matching.and(exceptCategory);
+            if (!matching.isEmpty()) {
+                categoryCounts.put(entry.getKey(), matching.cardinality());
+            }
+        });
+        return new FilterResult(Arrays.copyOf(page, pageSize), total, counts, categoryCounts);
+    }
+
+    private void countBucket(int[][] counts, int facet, int position) {
+        int bucket = FACETS[facet].bucketOf(columns[facet][position]);
+        if (bucket >= 0) {
+            ++counts[facet][bucket];
+        }
+    }
+
+    private int positionOf(long recipeId) {
+        Integer position = positions.get(recipeId);
+        if (position != null) {
+            return position;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            for (int f = 0; f < FACETS.length; ++f) {
+                columns[f] = Arrays.copyOf(columns[f], size * 2);
+            }
+        }
+        ids[size] = recipeId;
+        for (int f = 0; f < FACETS.length; ++f) {
+            columns[f][size] = Float.NaN;
+        }
+        present.set(size);
+        positions.put(recipeId, size);
+        return size++;
+    }
+
+    /**
+     * @param ids            page of the matching recipe ids
+     * @param total          number of all matching recipes
+     * @param counts         number of recipes in every bucket of every facet, indexed by {@link RecipeFacet#ordinal()}
+     * @param categoryCounts number of recipes in every non-empty category
+     */
+    public record FilterResult(long[] ids, int total, int[][] counts, Map<Long, Integer> categoryCounts) {
+        public int[] getCounts(RecipeFacet facet) {
+            return counts[facet.ordinal()];
+        }
+    }
+}
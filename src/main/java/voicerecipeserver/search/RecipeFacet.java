@@ -0,0 +1,52 @@
+package voicerecipeserver.search;
+
+/**
+ * Numeric recipe attribute the recipes can be filtered and counted by. Buckets of a facet are [bound i, bound i + 1),
+ * the last one is open.
+ */
+public enum RecipeFacet {
+    COOK_TIME_MINS("cook_time_mins", 0, 15, 30, 60, 120),
+    PREP_TIME_MINS("prep_time_mins", 0, 15, 30, 60, 120),
+    KILOCALORIES("kilocalories", 0, 200, 400, 600, 800),
+    SERVINGS("servings", 1, 2, 3, 5, 9),
+    AVG_MARK("avg_mark", 1, 2, 3, 4, 5);
+
+    private final String key;
+    private final float[] bounds;
+
+    RecipeFacet(String key, float... bounds) {
+        this.key = key;
+        this.bounds = bounds;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getBucketsCount() {
+        return bounds.length;
+    }
+
+    public float getBucketFrom(int bucket) {
+        return bounds[bucket];
+    }
+
+    /**
+     * @return upper bound of the bucket exclusive, null for the last one
+     */
+    public Float getBucketTo(int bucket) {
+        return bucket + 1 < bounds.length ? bounds[bucket + 1] : null;
+    }
+
+    /**
+     * @return bucket of the value, -1 if the value is unknown or below the first bucket
+     */
+    int bucketOf(float value) {
+        for (int bucket = bounds.length - 1; bucket >= 0; --bucket) {
+            if (value >= bounds[bucket]) {
+                return bucket;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,116 @@
+package voicerecipeserver.search;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import voicerecipeserver.model.entities.AvgMark;
+import voicerecipeserver.respository.AvgMarkRepository;
+import voicerecipeserver.respository.CategoryRepository;
+import voicerecipeserver.respository.RecipeRepository;
+
+import java.util.function.Consumer;
+
+import static voicerecipeserver.utils.TransactionUtils.afterCommit;
+
+/**
+ * Faceted recipe filtering answered from a {@link RecipeAttributeStore}. The store is updated by the services that
+ * change the recipes, their categories and marks, inside a transaction the update is applied after commit. The store
+ * is also rebuilt in the background, which picks up the changes made by other nodes and compacts deleted recipes, the
+ * updates applied during a rebuild are replayed on the rebuilt store.
+ */
+@Component
+public class RecipeFacets {
+    private static final RecipeFacet[] RECIPE_COLUMNS = {RecipeFacet.COOK_TIME_MINS, RecipeFacet.PREP_TIME_MINS,
+            RecipeFacet.KILOCALORIES, RecipeFacet.SERVINGS, RecipeFacet.AVG_MARK};
+
+    private final RecipeRepository recipeRepository;
+    private final CategoryRepository categoryRepository;
+    private final AvgMarkRepository avgMarkRepository;
+    private final ReloadableIndex<RecipeAttributeStore> store = new ReloadableIndex<>(new RecipeAttributeStore());
+
+    @Autowired
+    public RecipeFacets(RecipeRepository recipeRepository, CategoryRepository categoryRepository,
+                        AvgMarkRepository avgMarkRepository) {
+        this.recipeRepository = recipeRepository;
+        this.categoryRepository = categoryRepository;
+        this.avgMarkRepository = avgMarkRepository;
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${search.facets.refresh-ms:300000}",
+            fixedDelayString = "${search.facets.refresh-ms:300000}")
+    public void load() {
+        store.reload(() -> {
+            RecipeAttributeStore loaded = new RecipeAttributeStore();
+            // rows are ordered by id, the store keeps the positions in the id order
+            for (Object[] row : recipeRepository.findAllFacetValues()) {
+                long recipeId = ((Number) row[0]).longValue();
+                for (int i = 0; i < RECIPE_COLUMNS.length; ++i) {
+                    loaded.set(recipeId, RECIPE_COLUMNS[i], toFloat((Number) row[i + 1]));
+                }
+            }
+            for (Object[] pair : categoryRepository.findAllRecipeCategoryIds()) {
+                loaded.addToCategory(((Number) pair[0]).longValue(), ((Number) pair[1]).longValue());
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Adds the recipe or replaces its attributes, the average mark is kept
+     */
+    public void putRecipe(long recipeId, Integer cookTimeMins, Integer prepTimeMins, Double kilocalories,
+                          Integer servings) {
+        update(attributes -> {
+            attributes.set(recipeId, RecipeFacet.COOK_TIME_MINS, toFloat(cookTimeMins));
+            attributes.set(recipeId, RecipeFacet.PREP_TIME_MINS, toFloat(prepTimeMins));
+            attributes.set(recipeId, RecipeFacet.KILOCALORIES, toFloat(kilocalories));
+            attributes.set(recipeId, RecipeFacet.SERVINGS, toFloat(servings));
+        });
+    }
+
+    public void removeRecipe(long recipeId) {
+        update(attributes -> attributes.remove(recipeId));
+    }
+
+    public void addRecipeToCategory(long recipeId, long categoryId) {
+        update(attributes -> attributes.addToCategory(recipeId, categoryId));
+    }
+
+    public void removeRecipeFromCategory(long recipeId, long categoryId) {
+        update(attributes -> attributes.removeFromCategory(recipeId, categoryId));
+    }
+
+    /**
+     * Re-reads the average mark of the recipe, which is maintained by a trigger of the marks table
+     */
+    public void refreshAvgMark(long recipeId) {
+        afterCommit(() -> {
+            Float avgMark = avgMarkRepository.findById(recipeId)
+                    .filter(mark -> mark.getQuantity() != null && mark.getQuantity() > 0)
+                    .map(AvgMark::getAvgMark).orElse(null);
+            store.update(attributes -> {
+                // a recipe deleted meanwhile must not be added back
+                if (attributes.contains(recipeId)) {
+                    attributes.set(recipeId, RecipeFacet.AVG_MARK, toFloat(avgMark));
+                }
+            });
+        });
+    }
+
+    /**
+     * @see RecipeAttributeStore#filter
+     */
+    public RecipeAttributeStore.FilterResult filter(RecipeFilter filter, long beforeId, int offset, int limit) {
+        return store.read(attributes -> attributes.filter(filter, beforeId, offset, limit));
+    }
+
+    private void update(Consumer<RecipeAttributeStore> update) {
+        afterCommit(() -> store.update(update));
+    }
+
+    private static float toFloat(Number value) {
+        return value == null ? Float.NaN : value.floatValue();
+    }
+}
@@ -0,0 +1,45 @@
+package voicerecipeserver.search;
+
+import java.util.Arrays;
+
+/**
+ * Ranges of recipe attributes, both bounds inclusive, and a category. A recipe with an unknown value of a restricted
+ * attribute doesn't match.
+ */
+public class RecipeFilter {
+    private final float[] min = new float[RecipeFacet.values().length];
+    private final float[] max = new float[RecipeFacet.values().length];
+    private final boolean[] restricted = new boolean[RecipeFacet.values().length];
+    private Long categoryId;
+
+    public RecipeFilter() {
+        Arrays.fill(min, Float.NEGATIVE_INFINITY);
+        Arrays.fill(max, Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @param from lower bound, null for none
+     * @param to   upper bound, null for none
+     */
+    public RecipeFilter range(RecipeFacet facet, Number from, Number to) {
+        int f = facet.ordinal();
+        restricted[f] = from != null || to != null;
+        min[f] = from == null ? Float.NEGATIVE_INFINITY : from.floatValue();
+        max[f] = to == null ? Float.POSITIVE_INFINITY : to.floatValue();
+        return this;
+    }
+
+    public RecipeFilter category(Long categoryId) {
+        this.categoryId = categoryId;
+        return this;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    boolean accepts(int facet, float value) {
+        // NaN fails both comparisons
+        return !restricted[facet] || (value >= min[facet] && value <= max[facet]);
+    }
+}
@@ -0,0 +1,77 @@
+package voicerecipeserver.search;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import voicerecipeserver.respository.IngredientRepository;
+
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static voicerecipeserver.utils.TransactionUtils.afterCommit;
+
+/**
+ * Recipes that can be cooked from the given ingredients, found through {@link IngredientIndex}. The index is loaded
+ * once at startup and then updated together with the recipes.
+ */
+@Component
+public class RecipesByIngredients {
+    private final IngredientRepository ingredientRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IngredientIndex index = new IngredientIndex();
+
+    @Autowired
+    public RecipesByIngredients(IngredientRepository ingredientRepository) {
+        this.ingredientRepository = ingredientRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        Map<Long, long[]> ingredients = ingredientRepository.findAllRecipeIngredients();
+        lock.writeLock().lock();
+        try {
+            ingredients.forEach(index::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes new ingredients of the recipe. Inside a transaction the index is updated after commit.
+     */
+    public void putRecipe(long recipeId, long[] ingredientIds) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                index.put(recipeId, ingredientIds);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeRecipe(long recipeId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                index.remove(recipeId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * @param all true to select only the recipes with every one of the ingredients, false for any of them
+     * @return ids of at most n recipes, the ones with the fewest missing ingredients first
+     */
+    public long[] search(long[] ingredientIds, boolean all, int n) {
+        lock.readLock().lock();
+        try {
+            return index.search(ingredientIds, all, n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
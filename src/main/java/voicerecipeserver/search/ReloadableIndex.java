@@ -0,0 +1,79 @@
+package voicerecipeserver.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Holder of a not thread-safe in-memory index which is updated together with the data and rebuilt from the database
+ * from time to time. The rebuild reads the database without the lock and then replaces the index. The updates applied
+ * while it reads are recorded and replayed on the rebuilt index before the swap, since the read may have missed them,
+ * so a recipe deleted meanwhile does not come back. An update is applied again to data it is already part of, so it
+ * must not depend on the previous state, put and remove are fine.
+ */
+class ReloadableIndex<T> {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private T index;
+    /**
+     * Updates applied since the running rebuild started, null if there is no rebuild
+     */
+    private List<Consumer<T>> pendingUpdates;
+
+    ReloadableIndex(T index) {
+        this.index = index;
+    }
+
+    /**
+     * Builds a new index with the loader and replaces the current one
+     */
+    synchronized void reload(Supplier<T> loader) {
+        lock.writeLock().lock();
+        try {
+            pendingUpdates = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        T loaded = null;
+        try {
+            loaded = loader.get();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded != null) {
+                    for (Consumer<T> update : pendingUpdates) {
+                        update.accept(loaded);
+                    }
+                    index = loaded;
+                }
+                pendingUpdates = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    void update(Consumer<T> update) {
+        lock.writeLock().lock();
+        try {
+            update.accept(index);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    <R> R read(Function<T, R> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -36,6 +36,8 @@ public class SecurityConfig {
                         .requestMatchers(Constants.BASE_API_PATH + "/auth/token").permitAll()
                         .requestMatchers(Constants.BASE_API_PATH + "/login/*").permitAll()
                         .requestMatchers(Constants.BASE_API_PATH + "/media/**").permitAll()
+                        .requestMatchers(Constants.BASE_API_PATH + "/autocomplete").permitAll()
+                        .requestMatchers(Constants.BASE_API_PATH + "/search").permitAll()
                         .requestMatchers(Constants.BASE_API_PATH + "/comments/**").permitAll()
                         .requestMatchers(Constants.BASE_API_PATH + "/collections/**").permitAll()
                         .requestMatchers(Constants.BASE_API_PATH + "/marks/**").permitAll()
@@ -49,7 +51,11 @@ public class SecurityConfig {
                 )
                 .addFilterAfter(jwtFilter, UsernamePasswordAuthenticationFilter.class)
                 .logout(LogoutConfigurer::permitAll);
-        http.cors(configurer -> configurer.configurationSource(request -> new CorsConfiguration().applyPermitDefaultValues()));
+        http.cors(configurer -> configurer.configurationSource(request -> {
+            CorsConfiguration configuration = new CorsConfiguration().applyPermitDefaultValues();
+            configuration.addExposedHeader(Constants.NEXT_CURSOR_HEADER);
+            return configuration;
+        }));
         http.csrf(AbstractHttpConfigurer::disable);
         http.httpBasic(Customizer.withDefaults());
         return http.build();
@@ -15,8 +15,9 @@ public interface UserService {
 
     ResponseEntity<UserProfileDto> getCurrentUserProfile() throws NotFoundException;
 
-    ResponseEntity<List<UserProfileDto>> getUserProfilesByPartLogin(String login, Integer limit, Integer page) throws
-            NotFoundException;
+    ResponseEntity<List<UserProfileDto>> getUserProfilesByPartLogin(String login, Integer limit, Integer page,
+                                                                    String cursor) throws NotFoundException,
+            BadRequestException;
 
     ResponseEntity<UserProfileDto> getUserProfileByLogin(String login) throws NotFoundException;
 
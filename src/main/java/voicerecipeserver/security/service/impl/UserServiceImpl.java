@@ -17,10 +17,12 @@ import voicerecipeserver.model.entities.UserInfo;
 import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.NotFoundException;
 import voicerecipeserver.respository.*;
+import voicerecipeserver.search.Autocomplete;
 import voicerecipeserver.security.config.BeanConfig;
 import voicerecipeserver.security.service.UserService;
 import voicerecipeserver.utils.FindUtils;
 import voicerecipeserver.utils.GetUtil;
+import voicerecipeserver.utils.PageCursor;
 
 import java.util.*;
 
@@ -34,12 +36,13 @@ public class UserServiceImpl implements UserService {
     private final ModelMapper mapper;
     private final MediaRepository mediaRepository;
     private final MailSender mailSender;
+    private final Autocomplete autocomplete;
 
 
     @Autowired
     public UserServiceImpl(UserRepository userRepository, BeanConfig passwordEncoder, ModelMapper mapper,
                            RoleRepository roleRepository, UserInfoRepository userInfoRepository,
-                           MediaRepository mediaRepository, MailSender mailSender) {
+                           MediaRepository mediaRepository, MailSender mailSender, Autocomplete autocomplete) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.mapper = mapper;
@@ -47,6 +50,7 @@ public class UserServiceImpl implements UserService {
         this.userInfoRepository = userInfoRepository;
         this.mediaRepository = mediaRepository;
         this.mailSender = mailSender;
+        this.autocomplete = autocomplete;
     }
 
     private Role findRole(String name) throws NotFoundException {
@@ -80,6 +84,7 @@ public class UserServiceImpl implements UserService {
         userInfo.setEmail(userDto.getEmail());
         userInfo.setDisplayName(userDto.getDisplayName());
         userInfoRepository.save(userInfo);
+        autocomplete.putUser(savedUser.getId(), savedUser.getUid());
         return ResponseEntity.ok(new IdDto().id(savedUser.getId()));
     }
 
@@ -100,16 +105,23 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public ResponseEntity<List<UserProfileDto>> getUserProfilesByPartLogin(String login, Integer limit, Integer page) throws
-            NotFoundException {
+    public ResponseEntity<List<UserProfileDto>> getUserProfilesByPartLogin(String login, Integer limit, Integer page,
+                                                                           String cursor) throws NotFoundException,
+            BadRequestException {
         List<UserProfileDto> userProfileDtos = new ArrayList<>();
-        List<User> users = userRepository.findByUidContaining(login, GetUtil.getCurrentLimit(limit), GetUtil.getCurrentPage(page));
+        int currentLimit = GetUtil.getCurrentLimit(limit);
+        PageCursor after = PageCursor.decode(cursor, 1);
+        List<User> users = userRepository.findByUidContaining(login, after == null ? "" : after.getString(0),
+                                                              currentLimit,
+                                                              PageCursor.getOffset(cursor, currentLimit, page));
         for (User user : users) {
             UserInfo userInfo = FindUtils.findUserInfoById(userInfoRepository, user.getId());
             UserProfileDto userProfileDto = mapper.map(userInfo, UserProfileDto.class);
             userProfileDtos.add(userProfileDto);
         }
-        return ResponseEntity.ok(userProfileDtos);
+        String nextCursor = PageCursor.hasNext(users, currentLimit) ?
+                PageCursor.encode(users.get(users.size() - 1).getUid()) : null;
+        return PageCursor.toResponse(userProfileDtos, nextCursor);
     }
 
     @Override
@@ -0,0 +1,8 @@
+package voicerecipeserver.services;
+
+import org.springframework.http.ResponseEntity;
+import voicerecipeserver.model.dto.AutocompleteDto;
+
+public interface AutocompleteService {
+    ResponseEntity<AutocompleteDto> autocomplete(String query, Integer limit);
+}
@@ -4,6 +4,7 @@ import org.springframework.http.ResponseEntity;
 import voicerecipeserver.model.dto.CategoryDto;
 import voicerecipeserver.model.dto.RecipeDto;
 import voicerecipeserver.model.exceptions.AuthException;
+import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.NotFoundException;
 
 import java.util.List;
@@ -11,7 +12,8 @@ import java.util.List;
 public interface CategoryService {
     ResponseEntity<List<CategoryDto>> getCategories();
 
-    ResponseEntity<List<RecipeDto>> getRecipesFromCategory(Long id, Integer limit, Integer page);
+    ResponseEntity<List<RecipeDto>> getRecipesFromCategory(Long id, Integer limit, Integer page, String cursor) throws
+            BadRequestException;
 
     ResponseEntity<Void> deleteRecipeFromCategory(Long id, Long recipeId) throws NotFoundException, AuthException;
 
@@ -5,6 +5,7 @@ import voicerecipeserver.model.dto.CollectionDto;
 import voicerecipeserver.model.dto.IdDto;
 import voicerecipeserver.model.dto.RecipeDto;
 import voicerecipeserver.model.exceptions.AuthException;
+import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.NotFoundException;
 
 import java.util.List;
@@ -23,11 +24,15 @@ public interface CollectionService {
     ResponseEntity<Void> deleteRecipeFromCollection(Long recipe, Long collectionId) throws NotFoundException,
             AuthException;
 
-    ResponseEntity<List<CollectionDto>> getCollections(String login, Integer limit, Integer page) throws NotFoundException;
+    ResponseEntity<List<CollectionDto>> getCollections(String login, Integer limit, Integer page, String cursor) throws
+            NotFoundException, BadRequestException;
 
-    ResponseEntity<List<CollectionDto>> getCollectionsByName(String name, Integer limit, Integer page) throws NotFoundException;
+    ResponseEntity<List<CollectionDto>> getCollectionsByName(String name, Integer limit, Integer page,
+                                                             String cursor) throws NotFoundException,
+            BadRequestException;
 
-    ResponseEntity<List<RecipeDto>> getCollectionRecipesById(Long id, Integer limit, Integer page) throws NotFoundException;
+    ResponseEntity<List<RecipeDto>> getCollectionRecipesById(Long id, Integer limit, Integer page, String cursor) throws
+            NotFoundException, BadRequestException;
 
     ResponseEntity<IdDto> postLikedRecipe(Long recipeId) throws NotFoundException;
 }
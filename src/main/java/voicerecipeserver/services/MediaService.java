@@ -1,12 +1,26 @@
 package voicerecipeserver.services;
 
+import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 import voicerecipeserver.model.dto.IdDto;
+import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.InvalidMediaTypeException;
 import voicerecipeserver.model.exceptions.NotFoundException;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 public interface MediaService {
-    ResponseEntity<byte[]> getMediaById(Long id) throws NotFoundException;
+    /**
+     * The size and the conditional headers of the request are null if there are none
+     */
+    ResponseEntity<Resource> getMediaById(Long id, String size, String ifNoneMatch, String ifModifiedSince,
+                                          String ifRange) throws NotFoundException, BadRequestException, IOException;
 
-    ResponseEntity<IdDto> addMedia(String contentTypeHeader, byte[] data) throws InvalidMediaTypeException;
+    /**
+     * @param contentLength declared length of the data, null if it is unknown
+     * @throws voicerecipeserver.model.exceptions.MediaTooLargeException if the data is over the size limit
+     */
+    ResponseEntity<IdDto> addMedia(String contentTypeHeader, Long contentLength, InputStream data) throws
+            InvalidMediaTypeException, BadRequestException, IOException;
 }
@@ -2,11 +2,13 @@ package voicerecipeserver.services;
 
 import org.springframework.http.ResponseEntity;
 import voicerecipeserver.model.dto.CategoryDto;
+import voicerecipeserver.model.dto.FilteredRecipesDto;
 import voicerecipeserver.model.dto.IdDto;
 import voicerecipeserver.model.dto.RecipeDto;
 import voicerecipeserver.model.exceptions.AuthException;
 import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.NotFoundException;
+import voicerecipeserver.search.RecipeFilter;
 
 import java.util.List;
 
@@ -18,12 +20,21 @@ public interface RecipeService {
     ResponseEntity<IdDto> updateRecipe(RecipeDto recipeDto) throws NotFoundException, BadRequestException,
             AuthException;
 
-    ResponseEntity<List<RecipeDto>> searchRecipesByName(String name, Integer limit, Integer page) throws NotFoundException,
-            AuthException;
+    ResponseEntity<List<RecipeDto>> searchRecipesByName(String name, Integer limit, Integer page, String cursor) throws
+            NotFoundException, AuthException, BadRequestException;
 
     ResponseEntity<Void> deleteRecipe(Long id) throws NotFoundException;
 
-    ResponseEntity<List<RecipeDto>> getRecommendations(Integer limit, Integer page) throws AuthException, NotFoundException;
+    ResponseEntity<List<RecipeDto>> getRecommendations(Integer limit, Integer page, Long categoryId) throws AuthException,
+            NotFoundException;
 
     ResponseEntity<List<CategoryDto>> getCategoriesByRecipeId(Long id);
+
+    ResponseEntity<List<RecipeDto>> getSimilarRecipes(Long id, Integer limit) throws NotFoundException;
+
+    ResponseEntity<List<RecipeDto>> getRecipesByIngredients(List<String> ingredients, Boolean all, Integer limit,
+                                                            Integer page);
+
+    ResponseEntity<FilteredRecipesDto> filterRecipes(RecipeFilter filter, Integer limit, Integer page, String cursor)
+            throws BadRequestException;
 }
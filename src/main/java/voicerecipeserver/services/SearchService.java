@@ -0,0 +1,8 @@
+package voicerecipeserver.services;
+
+import org.springframework.http.ResponseEntity;
+import voicerecipeserver.model.dto.SearchResultsDto;
+
+public interface SearchService {
+    ResponseEntity<SearchResultsDto> search(String query, Integer limit);
+}
@@ -0,0 +1,36 @@
+package voicerecipeserver.services.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import voicerecipeserver.model.dto.AutocompleteDto;
+import voicerecipeserver.model.dto.SuggestionDto;
+import voicerecipeserver.search.Autocomplete;
+import voicerecipeserver.services.AutocompleteService;
+import voicerecipeserver.utils.GetUtil;
+
+import java.util.List;
+
+@Service
+public class AutocompleteServiceImpl implements AutocompleteService {
+    private final Autocomplete autocomplete;
+
+    @Autowired
+    public AutocompleteServiceImpl(Autocomplete autocomplete) {
+        this.autocomplete = autocomplete;
+    }
+
+    @Override
+    public ResponseEntity<AutocompleteDto> autocomplete(String query, Integer limit) {
+        int currentLimit = GetUtil.getCurrentLimit(limit);
+        return ResponseEntity.ok(new AutocompleteDto()
+                                         .recipes(toDtos(autocomplete.suggestRecipes(query, currentLimit)))
+                                         .collections(toDtos(autocomplete.suggestCollections(query, currentLimit)))
+                                         .users(toDtos(autocomplete.suggestUsers(query, currentLimit))));
+    }
+
+    private static List<SuggestionDto> toDtos(List<Autocomplete.Suggestion> suggestions) {
+        return suggestions.stream().map(suggestion -> new SuggestionDto().id(suggestion.id()).name(suggestion.name()))
+                .toList();
+    }
+}
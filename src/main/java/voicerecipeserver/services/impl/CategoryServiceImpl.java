@@ -11,13 +11,17 @@ import voicerecipeserver.model.dto.RecipeDto;
 import voicerecipeserver.model.entities.Category;
 import voicerecipeserver.model.entities.Recipe;
 import voicerecipeserver.model.exceptions.AuthException;
+import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.NotFoundException;
+import voicerecipeserver.recommend.SlopeOne;
 import voicerecipeserver.respository.CategoryRepository;
 import voicerecipeserver.respository.RecipeRepository;
+import voicerecipeserver.search.RecipeFacets;
 import voicerecipeserver.security.service.impl.AuthServiceCommon;
 import voicerecipeserver.services.CategoryService;
 import voicerecipeserver.utils.FindUtils;
 import voicerecipeserver.utils.GetUtil;
+import voicerecipeserver.utils.PageCursor;
 
 import java.util.List;
 
@@ -27,12 +31,16 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final RecipeRepository recipeRepository;
     private final ModelMapper modelMapper;
+    private final SlopeOne slopeOne;
+    private final RecipeFacets recipeFacets;
 
     public CategoryServiceImpl(CategoryRepository categoryRepository, RecipeRepository recipeRepository,
-                               ModelMapper modelMapper) {
+                               ModelMapper modelMapper, SlopeOne slopeOne, RecipeFacets recipeFacets) {
         this.categoryRepository = categoryRepository;
         this.recipeRepository = recipeRepository;
         this.modelMapper = modelMapper;
+        this.slopeOne = slopeOne;
+        this.recipeFacets = recipeFacets;
     }
 
     @Override
@@ -44,12 +52,17 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    public ResponseEntity<List<RecipeDto>> getRecipesFromCategory(Long id, Integer limit,
-                                                                  Integer page) { //todo проверить на пустой категории
-        List<Recipe> recipes = recipeRepository.findByCategoryId(id, GetUtil.getCurrentLimit(limit), GetUtil.getCurrentPage(page));
+    public ResponseEntity<List<RecipeDto>> getRecipesFromCategory(Long id, Integer limit, Integer page,
+                                                                  String cursor) throws BadRequestException { //todo проверить на пустой категории
+        int currentLimit = GetUtil.getCurrentLimit(limit);
+        PageCursor after = PageCursor.decode(cursor, 1);
+        List<Recipe> recipes = recipeRepository.findByCategoryId(id, after == null ? 0 : after.getLong(0), currentLimit,
+                                                                 PageCursor.getOffset(cursor, currentLimit, page));
         List<RecipeDto> recipeDtos = recipes.stream().map(
                 element -> modelMapper.map(element, RecipeDto.class)).toList();
-        return ResponseEntity.ok(recipeDtos);
+        String nextCursor = PageCursor.hasNext(recipes, currentLimit) ?
+                PageCursor.encode(recipes.get(recipes.size() - 1).getId()) : null;
+        return PageCursor.toResponse(recipeDtos, nextCursor);
     }
 
     @Override
@@ -62,6 +75,8 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.deleteByCategoryRecipeId(categoryId, recipeId);
+        slopeOne.removeRecipeFromCategory(recipeId, categoryId);
+        recipeFacets.removeRecipeFromCategory(recipeId, categoryId);
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
@@ -76,6 +91,8 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = FindUtils.findCategory(categoryRepository, categoryId);
         if (!recipe.getCategories().contains(category)) {
             categoryRepository.addRecipeToCategory(recipeId, categoryId);
+            slopeOne.addRecipeToCategory(recipeId, categoryId);
+            recipeFacets.addRecipeToCategory(recipeId, categoryId);
         }
         return new ResponseEntity<>(HttpStatus.OK);
     }
@@ -14,12 +14,15 @@ import voicerecipeserver.model.entities.Media;
 import voicerecipeserver.model.entities.Recipe;
 import voicerecipeserver.model.entities.User;
 import voicerecipeserver.model.exceptions.AuthException;
+import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.NotFoundException;
 import voicerecipeserver.respository.*;
+import voicerecipeserver.search.Autocomplete;
 import voicerecipeserver.security.service.impl.AuthServiceCommon;
 import voicerecipeserver.services.CollectionService;
 import voicerecipeserver.utils.FindUtils;
 import voicerecipeserver.utils.GetUtil;
+import voicerecipeserver.utils.PageCursor;
 
 import java.util.List;
 
@@ -34,18 +37,20 @@ public class CollectionServiceImpl implements CollectionService {
 
     private final ModelMapper mapper;
     private final CategoryRepository categoryRepository;
+    private final Autocomplete autocomplete;
 
 
     @Autowired
     public CollectionServiceImpl(CollectionRepository repository, RecipeRepository recipeRepository,
                                  UserRepository userRepository, MediaRepository mediaRepository, ModelMapper mapper,
-                                 CategoryRepository categoryRepository) {
+                                 CategoryRepository categoryRepository, Autocomplete autocomplete) {
         this.collectionRepository = repository;
         this.recipeRepository = recipeRepository;
         this.userRepository = userRepository;
         this.mediaRepository = mediaRepository;
         this.mapper = mapper;
         this.categoryRepository = categoryRepository;
+        this.autocomplete = autocomplete;
     }
 
     @Override
@@ -55,7 +60,8 @@ public class CollectionServiceImpl implements CollectionService {
         Collection collection = mapper.map(body, Collection.class);
         collection.setAuthor(FindUtils.findUserByUid(userRepository, AuthServiceCommon.getUserLogin()));
         collection.setNumber(0);
-        collectionRepository.save(collection);
+        Collection savedCollection = collectionRepository.save(collection);
+        autocomplete.putCollection(savedCollection.getId(), savedCollection.getName());
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
@@ -89,6 +95,7 @@ public class CollectionServiceImpl implements CollectionService {
             throw new AuthException("No rights");
         }
         collectionRepository.deleteById(id);
+        autocomplete.removeCollection(id);
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
@@ -104,6 +111,7 @@ public class CollectionServiceImpl implements CollectionService {
         collection.setName(body.getName());
         collection.setMedia(media);
         Collection savedCollection = collectionRepository.save(collection);
+        autocomplete.putCollection(savedCollection.getId(), savedCollection.getName());
         return ResponseEntity.ok(new IdDto().id(savedCollection.getId()));
     }
 
@@ -122,35 +130,56 @@ public class CollectionServiceImpl implements CollectionService {
     }
 
     @Override
-    public ResponseEntity<List<CollectionDto>> getCollections(String login, Integer limit, Integer page) throws
-            NotFoundException {
+    public ResponseEntity<List<CollectionDto>> getCollections(String login, Integer limit, Integer page,
+                                                              String cursor) throws NotFoundException,
+            BadRequestException {
         String findLogin = login == null ? AuthServiceCommon.getUserLogin() : login;
         User user = FindUtils.findUserByUid(userRepository, findLogin);
-        List<Collection> collections = collectionRepository.findByAuthorIdWithOffset(user.getId(),
-                                                                                     GetUtil.getCurrentLimit(limit),
-                                                                                     GetUtil.getCurrentPage(page));
+        int currentLimit = GetUtil.getCurrentLimit(limit);
+        PageCursor after = PageCursor.decode(cursor, 1);
+        List<Collection> collections = collectionRepository.findByAuthorIdWithOffset(
+                user.getId(), after == null ? 0 : after.getLong(0), currentLimit,
+                PageCursor.getOffset(cursor, currentLimit, page));
         List<CollectionDto> collectionDtos = collections.stream().map(
                 collection -> mapper.map(collection, CollectionDto.class)).toList();
-        return ResponseEntity.ok(collectionDtos);
+        String nextCursor = PageCursor.hasNext(collections, currentLimit) ?
+                PageCursor.encode(collections.get(collections.size() - 1).getId()) : null;
+        return PageCursor.toResponse(collectionDtos, nextCursor);
     }
 
     @Override
-    public ResponseEntity<List<CollectionDto>> getCollectionsByName(String name, Integer limit, Integer page) {
-        List<Collection> collections = collectionRepository.findByNameContaining(name, GetUtil.getCurrentLimit(limit),
-                                                                                 GetUtil.getCurrentPage(page));
+    public ResponseEntity<List<CollectionDto>> getCollectionsByName(String name, Integer limit, Integer page,
+                                                                    String cursor) throws BadRequestException {
+        int currentLimit = GetUtil.getCurrentLimit(limit);
+        PageCursor after = PageCursor.decode(cursor, 2);
+        List<Collection> collections = after == null ?
+                collectionRepository.findByNameContaining(name, "", 0, currentLimit,
+                                                          PageCursor.getOffset(cursor, currentLimit, page)) :
+                collectionRepository.findByNameContaining(name, after.getString(0), after.getLong(1), currentLimit, 0);
         List<CollectionDto> collectionDtos = collections.stream().map(
                 collection -> mapper.map(collection, CollectionDto.class)).toList();
-        return ResponseEntity.ok(collectionDtos);
+        String nextCursor = null;
+        if (PageCursor.hasNext(collections, currentLimit)) {
+            Collection last = collections.get(collections.size() - 1);
+            nextCursor = PageCursor.encode(last.getName(), last.getId());
+        }
+        return PageCursor.toResponse(collectionDtos, nextCursor);
     }
 
     @Override
-    public ResponseEntity<List<RecipeDto>> getCollectionRecipesById(Long id, Integer limit, Integer page) throws
-            NotFoundException {
+    public ResponseEntity<List<RecipeDto>> getCollectionRecipesById(Long id, Integer limit, Integer page,
+                                                                    String cursor) throws NotFoundException,
+            BadRequestException {
         FindUtils.findCollectionById(collectionRepository, id);
-        List<Recipe> recipes = recipeRepository.findByCollectionId(id, GetUtil.getCurrentLimit(limit),
-                                                                   GetUtil.getCurrentPage(page));
+        int currentLimit = GetUtil.getCurrentLimit(limit);
+        PageCursor after = PageCursor.decode(cursor, 1);
+        List<Recipe> recipes = recipeRepository.findByCollectionId(id, after == null ? 0 : after.getLong(0),
+                                                                   currentLimit,
+                                                                   PageCursor.getOffset(cursor, currentLimit, page));
         List<RecipeDto> recipeDtos = recipes.stream().map(element -> mapper.map(element, RecipeDto.class)).toList();
-        return ResponseEntity.ok(recipeDtos);
+        String nextCursor = PageCursor.hasNext(recipes, currentLimit) ?
+                PageCursor.encode(recipes.get(recipes.size() - 1).getId()) : null;
+        return PageCursor.toResponse(recipeDtos, nextCursor);
     }
 
     @Override
@@ -163,6 +192,7 @@ public class CollectionServiceImpl implements CollectionService {
         if (likedCollection == null) {
             likedCollection = collectionRepository.save(
                     new Collection(likedName, 0, FindUtils.findUserByUid(userRepository, login)));
+            autocomplete.putCollection(likedCollection.getId(), likedCollection.getName());
         }
         if (collectionRepository.findRecipeInCollection(recipeId, likedCollection.getId()).isEmpty()) {
             collectionRepository.addRecipeToCollection(recipeId, likedCollection.getId());
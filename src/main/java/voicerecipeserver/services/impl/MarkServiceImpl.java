@@ -15,9 +15,12 @@ import voicerecipeserver.model.entities.User;
 import voicerecipeserver.model.exceptions.AuthException;
 import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.NotFoundException;
+import voicerecipeserver.recommend.RecommendationCache;
+import voicerecipeserver.recommend.SlopeOne;
 import voicerecipeserver.respository.MarkRepository;
 import voicerecipeserver.respository.RecipeRepository;
 import voicerecipeserver.respository.UserRepository;
+import voicerecipeserver.search.RecipeFacets;
 import voicerecipeserver.security.service.impl.AuthServiceCommon;
 import voicerecipeserver.services.MarkService;
 import voicerecipeserver.utils.FindUtils;
@@ -33,14 +36,21 @@ public class MarkServiceImpl implements MarkService {
     private final RecipeRepository recipeRepository;
     private final UserRepository userRepository;
     private final MarkRepository markRepository;
+    private final SlopeOne slopeOne;
+    private final RecommendationCache recommendationCache;
+    private final RecipeFacets recipeFacets;
 
     @Autowired
     public MarkServiceImpl(ModelMapper mapper, RecipeRepository recipeRepository, UserRepository userRepository,
-                           MarkRepository markRepository) {
+                           MarkRepository markRepository, SlopeOne slopeOne,
+                           RecommendationCache recommendationCache, RecipeFacets recipeFacets) {
         this.mapper = mapper;
         this.recipeRepository = recipeRepository;
         this.userRepository = userRepository;
         this.markRepository = markRepository;
+        this.slopeOne = slopeOne;
+        this.recommendationCache = recommendationCache;
+        this.recipeFacets = recipeFacets;
     }
 
     private void setRecipeToMark(Mark mark, Long recipeId) throws NotFoundException {
@@ -87,6 +97,9 @@ public class MarkServiceImpl implements MarkService {
         setAuthorToMark(mark, markDto.getUserUid());
         if (!markIsPresent(mark)) {
             markRepository.save(mark);
+            slopeOne.addMark(mark.getId().getUserId(), mark.getId().getRecipeId(), mark.getMark());
+            recommendationCache.invalidate(mark.getId().getUserId());
+            recipeFacets.refreshAvgMark(mark.getId().getRecipeId());
         } else {
             throw new BadRequestException("The mark already exist");
         }
@@ -104,6 +117,9 @@ public class MarkServiceImpl implements MarkService {
         setAuthorToMark(newMark, markDto.getUserUid());
         if (markIsPresent(newMark)) {
             markRepository.save(newMark);
+            slopeOne.addMark(newMark.getId().getUserId(), newMark.getId().getRecipeId(), newMark.getMark());
+            recommendationCache.invalidate(newMark.getId().getUserId());
+            recipeFacets.refreshAvgMark(newMark.getId().getRecipeId());
         } else {
             throw new NotFoundException("Couldn't find previous mark");
         }
@@ -119,6 +135,9 @@ public class MarkServiceImpl implements MarkService {
         }
         User user = FindUtils.findUserByUid(userRepository, userUid);
         markRepository.deleteById(new MarkKey(user.getId(), recipeId));
+        slopeOne.removeMark(user.getId(), recipeId);
+        recommendationCache.invalidate(user.getId());
+        recipeFacets.refreshAvgMark(recipeId);
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
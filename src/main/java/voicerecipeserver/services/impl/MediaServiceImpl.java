@@ -1,54 +1,133 @@
 package voicerecipeserver.services.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
 import voicerecipeserver.model.dto.IdDto;
 import voicerecipeserver.model.entities.Media;
 import voicerecipeserver.model.entities.MediaType;
+import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.InvalidMediaTypeException;
+import voicerecipeserver.model.exceptions.MediaTooLargeException;
 import voicerecipeserver.model.exceptions.NotFoundException;
 import voicerecipeserver.respository.MediaRepository;
 import voicerecipeserver.respository.MediaTypeRepository;
 import voicerecipeserver.services.MediaService;
+import voicerecipeserver.storage.ImageVariant;
+import voicerecipeserver.storage.LimitedInputStream;
+import voicerecipeserver.storage.MediaStorage;
+import voicerecipeserver.storage.MediaVariants;
+import voicerecipeserver.utils.CacheUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.Optional;
 
+import static voicerecipeserver.utils.TransactionUtils.afterCommit;
+
 @Service
 public class MediaServiceImpl implements MediaService {
 
     private final MediaRepository mediaRepository;
     private final MediaTypeRepository mediaTypeRepository;
+    private final MediaStorage mediaStorage;
+    private final MediaVariants mediaVariants;
+    private final long maxUploadSize;
 
     @Autowired
-    public MediaServiceImpl(MediaRepository mediaRepository, MediaTypeRepository mediaTypeRepository) {
+    public MediaServiceImpl(MediaRepository mediaRepository, MediaTypeRepository mediaTypeRepository,
+                            MediaStorage mediaStorage, MediaVariants mediaVariants,
+                            @Value("${media.upload.max-size:100MB}") DataSize maxUploadSize) {
         this.mediaTypeRepository = mediaTypeRepository;
         this.mediaRepository = mediaRepository;
+        this.mediaStorage = mediaStorage;
+        this.mediaVariants = mediaVariants;
+        this.maxUploadSize = maxUploadSize.toBytes();
     }
 
     //TODO тип медиа не проверяется
     @Override
-    public ResponseEntity<byte[]> getMediaById(Long id) throws NotFoundException {
-        Optional<Media> media = mediaRepository.findById(id);
-        if (media.isEmpty()) {
+    public ResponseEntity<Resource> getMediaById(Long id, String size, String ifNoneMatch, String ifModifiedSince,
+                                                 String ifRange) throws NotFoundException, BadRequestException,
+            IOException {
+        ImageVariant variant = null;
+        if (size != null) {
+            variant = ImageVariant.fromKey(size);
+            if (variant == null) {
+                throw new BadRequestException("Unknown media size: " + size);
+            }
+        }
+        Optional<MediaRepository.Metadata> metadata = mediaRepository.findMetadataById(id);
+        if (metadata.isEmpty()) {
             throw new NotFoundException("Couldn't find media with id: " + id);
         }
 
-        byte[] data = media.get().getFileData();
+        // a media is never changed, the content of an id is cached for good
+        String hash = metadata.get().getContentHash();
+        String cacheControl = CacheUtils.IMMUTABLE;
+        Instant lastModified = metadata.get().getCreatedAt();
+        if (variant != null && hash != null && MediaVariants.formatOf(metadata.get().getMimeType()) != null) {
+            Optional<String> variantHash = mediaVariants.findVariant(hash, variant);
+            if (variantHash.isPresent()) {
+                hash = variantHash.get();
+            } else {
+                // the original is sent until the variant is ready, the client has to come back for it. The ETag
+                // changes with the variant, Last-Modified doesn't, so it is not sent
+                mediaVariants.produce(hash, metadata.get().getMimeType());
+                cacheControl = CacheUtils.NO_CACHE;
+                lastModified = null;
+            }
+        }
+        String etag = hash == null ? null : "\"" + hash + "\"";
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(org.springframework.http.MediaType.valueOf(media.get().getMediaType().getMimeType()));
-        headers.setContentLength(data.length);
-        return new ResponseEntity<>(data, headers, HttpStatus.OK);
+        headers.setCacheControl(cacheControl);
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+        if (lastModified != null) {
+            headers.setLastModified(lastModified);
+        }
+        if (CacheUtils.isNotModified(ifNoneMatch, ifModifiedSince, etag, lastModified)) {
+            // answered from the metadata, the content is not opened
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        Resource content;
+        if (hash != null) {
+            // the original or its variant
+            content = mediaStorage.getResource(hash);
+        } else {
+            // not moved to the media storage yet, such a content has no ETag
+            Media media = mediaRepository.findById(id).orElseThrow(
+                    () -> new NotFoundException("Couldn't find media with id: " + id));
+            content = media.getContentHash() == null ? new ByteArrayResource(media.getFileData()) :
+                    mediaStorage.getResource(media.getContentHash());
+        }
+        headers.setContentType(org.springframework.http.MediaType.valueOf(metadata.get().getMimeType()));
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (ifRange != null && !ifRange.equals(etag)) {
+            // the client's part is of another content, the whole content is sent. Spring serves the Range header for
+            // any resource but an InputStreamResource
+            headers.setContentLength(content.contentLength());
+            return new ResponseEntity<>(new InputStreamResource(content.getInputStream()), headers, HttpStatus.OK);
+        }
+        // Range is served by Spring: 206 with the requested parts streamed from the resource, 416 if unsatisfiable
+        return new ResponseEntity<>(content, headers, HttpStatus.OK);
     }
 
 
     //todo кешнуть поддерживаемые типы при инициализации и потом их юзать. Эксепшены кидать при отсутствии типа.
     @Override
-    @Transactional
-    public ResponseEntity<IdDto> addMedia(String contentTypeHeader, byte[] data) throws InvalidMediaTypeException {
+    public ResponseEntity<IdDto> addMedia(String contentTypeHeader, Long contentLength, InputStream data) throws
+            InvalidMediaTypeException, BadRequestException, IOException {
         int endOfTypeInd = contentTypeHeader.indexOf(';');
         String mimeType;
         if (endOfTypeInd == -1) {
@@ -63,13 +142,27 @@ public class MediaServiceImpl implements MediaService {
             throw new InvalidMediaTypeException(mimeType);
         }
 
+        // rejected before anything is read, a chunked body is cut off by the stream once it is over the limit
+        if (contentLength != null && contentLength > maxUploadSize) {
+            throw new MediaTooLargeException(maxUploadSize);
+        }
+
         MediaType mediaType = mediaTypeOptional.get();
         Media media = new Media();
 
-        media.setFileData(data);
+        // stored before the row, a rolled back row leaves an unreferenced content, never a row without one. No
+        // transaction is held while the upload is being read, the row is saved in one of its own
+        MediaStorage.StoredContent content = mediaStorage.put(new LimitedInputStream(data, maxUploadSize));
+        if (content.size() == 0) {
+            throw new BadRequestException("Media is empty");
+        }
+        media.setContentHash(content.hash());
+        media.setSize(content.size());
         media.setMediaType(mediaType);
+        media.setCreatedAt(Instant.now());
 
         mediaRepository.save(media);
+        afterCommit(() -> mediaVariants.produce(content.hash(), mimeType));
         return ResponseEntity.ok(new IdDto().id(media.getId()));
     }
 
@@ -1,12 +1,20 @@
 package voicerecipeserver.services.impl;
 
 import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import voicerecipeserver.config.Constants;
+import voicerecipeserver.model.dto.CategoryCountDto;
 import voicerecipeserver.model.dto.CategoryDto;
+import voicerecipeserver.model.dto.FacetBucketDto;
+import voicerecipeserver.model.dto.FacetDto;
+import voicerecipeserver.model.dto.FilteredRecipesDto;
 import voicerecipeserver.model.dto.IdDto;
 import voicerecipeserver.model.dto.RecipeDto;
 import voicerecipeserver.model.entities.Collection;
@@ -14,12 +22,24 @@ import voicerecipeserver.model.entities.*;
 import voicerecipeserver.model.exceptions.AuthException;
 import voicerecipeserver.model.exceptions.BadRequestException;
 import voicerecipeserver.model.exceptions.NotFoundException;
+import voicerecipeserver.recommend.ColdStartPool;
+import voicerecipeserver.recommend.RecommendationCache;
+import voicerecipeserver.recommend.SimilarRecipes;
 import voicerecipeserver.recommend.SlopeOne;
 import voicerecipeserver.respository.*;
+import voicerecipeserver.search.Autocomplete;
+import voicerecipeserver.search.FuzzySearch;
+import voicerecipeserver.search.RecipeAttributeStore;
+import voicerecipeserver.search.RecipeFacet;
+import voicerecipeserver.search.RecipeFacets;
+import voicerecipeserver.search.RecipeFilter;
+import voicerecipeserver.search.RecipesByIngredients;
 import voicerecipeserver.security.service.impl.AuthServiceCommon;
 import voicerecipeserver.services.RecipeService;
 import voicerecipeserver.utils.FindUtils;
 import voicerecipeserver.utils.GetUtil;
+import voicerecipeserver.utils.PageCursor;
+import voicerecipeserver.utils.SearchUtils;
 
 import java.util.*;
 
@@ -35,6 +55,14 @@ public class RecipeServiceImpl implements RecipeService {
     private final MediaRepository mediaRepository;
     private final CollectionRepository collectionRepository;
     private final CategoryRepository categoryRepository;
+    private final SlopeOne slopeOne;
+    private final RecommendationCache recommendationCache;
+    private final ColdStartPool coldStartPool;
+    private final SimilarRecipes similarRecipes;
+    private final Autocomplete autocomplete;
+    private final RecipesByIngredients recipesByIngredients;
+    private final RecipeFacets recipeFacets;
+    private final FuzzySearch fuzzySearch;
 
     @Autowired
     public RecipeServiceImpl(RecipeRepository recipeRepository, IngredientRepository ingredientRepository,
@@ -42,7 +70,11 @@ public class RecipeServiceImpl implements RecipeService {
                              AvgMarkRepository avgMarkRepository, StepRepository stepRepository,
                              MarkRepository markRepository, UserRepository userRepository,
                              MediaRepository mediaRepository, CollectionRepository collectionRepository,
-                             CategoryRepository categoryRepository) {
+                             CategoryRepository categoryRepository, SlopeOne slopeOne,
+                             RecommendationCache recommendationCache, ColdStartPool coldStartPool,
+                             SimilarRecipes similarRecipes, Autocomplete autocomplete,
+                             RecipesByIngredients recipesByIngredients, RecipeFacets recipeFacets,
+                             FuzzySearch fuzzySearch) {
 
         this.recipeRepository = recipeRepository;
         this.ingredientRepository = ingredientRepository;
@@ -54,6 +86,14 @@ public class RecipeServiceImpl implements RecipeService {
         this.mediaRepository = mediaRepository;
         this.collectionRepository = collectionRepository;
         this.categoryRepository = categoryRepository;
+        this.slopeOne = slopeOne;
+        this.recommendationCache = recommendationCache;
+        this.coldStartPool = coldStartPool;
+        this.similarRecipes = similarRecipes;
+        this.autocomplete = autocomplete;
+        this.recipesByIngredients = recipesByIngredients;
+        this.recipeFacets = recipeFacets;
+        this.fuzzySearch = fuzzySearch;
     }
 
 
@@ -128,11 +168,18 @@ public class RecipeServiceImpl implements RecipeService {
 
         setDistribution(recipe);
         Recipe savedRecipe = recipeRepository.save(recipe);
+        similarRecipes.putRecipe(savedRecipe.getId(), getIngredientIds(savedRecipe));
+        recipesByIngredients.putRecipe(savedRecipe.getId(), getIngredientIds(savedRecipe));
+        recipeFacets.putRecipe(savedRecipe.getId(), savedRecipe.getCookTimeMins(), savedRecipe.getPrepTimeMins(),
+                               savedRecipe.getKilocalories(), savedRecipe.getServings());
+        autocomplete.putRecipe(savedRecipe.getId(), savedRecipe.getName());
+        fuzzySearch.putRecipe(savedRecipe.getId(), savedRecipe.getName());
         String savedName = author.getUid() + "_saved";
         Collection saveCollection = collectionRepository.findByAuthorIdUserRecipeCollection(author.getId(),
                                                                                                 savedName).orElse(null);
         if (saveCollection == null) {
             saveCollection = collectionRepository.save(new Collection(savedName, 0, author));
+            autocomplete.putCollection(saveCollection.getId(), saveCollection.getName());
         }
         collectionRepository.addRecipeToCollection(savedRecipe.getId(), saveCollection.getId());
         return ResponseEntity.ok(new IdDto().id(savedRecipe.getId()));
@@ -160,9 +207,21 @@ public class RecipeServiceImpl implements RecipeService {
         checkMediaUniqueness(newRecipe);
         setDistribution(newRecipe);
         recipeRepository.save(newRecipe);
+        similarRecipes.putRecipe(newRecipe.getId(), getIngredientIds(newRecipe));
+        recipesByIngredients.putRecipe(newRecipe.getId(), getIngredientIds(newRecipe));
+        recipeFacets.putRecipe(newRecipe.getId(), newRecipe.getCookTimeMins(), newRecipe.getPrepTimeMins(),
+                               newRecipe.getKilocalories(), newRecipe.getServings());
+        autocomplete.putRecipe(newRecipe.getId(), newRecipe.getName());
+        fuzzySearch.putRecipe(newRecipe.getId(), newRecipe.getName());
         return ResponseEntity.ok(new IdDto().id(newRecipe.getId()));
     }
 
+    private static long[] getIngredientIds(Recipe recipe) {
+        return recipe.getIngredientsDistributions().stream()
+                .mapToLong(distribution -> distribution.getIngredient().getId())
+                .toArray();
+    }
+
     private void setDistribution(Recipe recipe) throws BadRequestException {
         HashSet<String> ingredientsInRecipe = new HashSet<>();
         for (IngredientsDistribution ingredientsDistribution : recipe.getIngredientsDistributions()) {
@@ -219,10 +278,38 @@ public class RecipeServiceImpl implements RecipeService {
     }
 
     @Override
-    public ResponseEntity<List<RecipeDto>> searchRecipesByName(String name, Integer limit, Integer page) {
-        List<Recipe> recipes = recipeRepository.findByNameContaining(name, GetUtil.getCurrentLimit(limit), GetUtil.getCurrentPage(page));
+    public ResponseEntity<List<RecipeDto>> searchRecipesByName(String name, Integer limit, Integer page,
+                                                               String cursor) throws BadRequestException {
+        String query = SearchUtils.toPrefixTsQuery(name);
+        if (query.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        int currentLimit = GetUtil.getCurrentLimit(limit);
+        PageCursor after = PageCursor.decode(cursor, 3);
+        List<Recipe> recipes = after == null ?
+                recipeRepository.searchByName(query, Float.MAX_VALUE, "", 0, currentLimit,
+                                              PageCursor.getOffset(cursor, currentLimit, page)) :
+                recipeRepository.searchByName(query, after.getFloat(0), after.getString(1), after.getLong(2),
+                                              currentLimit, 0);
+        if (recipes.isEmpty() && after == null) {
+            // nothing matches exactly, the name may be misspelled. Fuzzy results are paged by page only, the exact
+            // search is rechecked for the later pages so that the end of the exact results doesn't turn fuzzy
+            int offset = PageCursor.getOffset(cursor, currentLimit, page);
+            if (offset == 0 || recipeRepository.searchByName(query, Float.MAX_VALUE, "", 0, 1, 0).isEmpty()) {
+                long[] found = fuzzySearch.search(name, offset + currentLimit);
+                long[] ids = Arrays.copyOfRange(found, Math.min(found.length, offset), found.length);
+                return ResponseEntity.ok(mapper.map(findRecipesInOrder(ids), new TypeToken<List<RecipeDto>>() {
+                }.getType()));
+            }
+        }
         List<RecipeDto> recipeDtos = recipes.stream().map(recipe -> mapper.map(recipe, RecipeDto.class)).toList();
-        return ResponseEntity.ok(recipeDtos);
+        String nextCursor = null;
+        if (PageCursor.hasNext(recipes, currentLimit)) {
+            Recipe last = recipes.get(recipes.size() - 1);
+            nextCursor = PageCursor.encode(recipeRepository.findSearchRank(query, last.getId()), last.getName(),
+                                           last.getId());
+        }
+        return PageCursor.toResponse(recipeDtos, nextCursor);
     }
 
     @Override
@@ -231,15 +318,113 @@ public class RecipeServiceImpl implements RecipeService {
         Recipe recipe = FindUtils.findRecipe(recipeRepository, recipeId);
         if (AuthServiceCommon.checkAuthorities(recipe.getAuthor().getUid())) {
             recipeRepository.deleteById(recipeId);
+            slopeOne.removeRecipe(recipeId);
+            similarRecipes.removeRecipe(recipeId);
+            recipesByIngredients.removeRecipe(recipeId);
+            recipeFacets.removeRecipe(recipeId);
+            autocomplete.removeRecipe(recipeId);
+            fuzzySearch.removeRecipe(recipeId);
         }
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
     @Override
-    public ResponseEntity<List<RecipeDto>> getRecommendations(Integer limit, Integer page) throws NotFoundException {
-        SlopeOne recommendAlgSlopeOne = new SlopeOne(mapper, userRepository, markRepository, recipeRepository);
-        List<RecipeDto> recipes = recommendAlgSlopeOne.recommendAlgSlopeOne(limit, page);
-        return ResponseEntity.ok(recipes);
+    public ResponseEntity<List<RecipeDto>> getRecommendations(Integer limit, Integer page, Long categoryId) throws
+            NotFoundException {
+        int currentLimit = GetUtil.getCurrentLimit(limit);
+        int currentPage = GetUtil.getCurrentPage(page);
+        long[] recommended = null;
+        if (!(SecurityContextHolder.getContext().getAuthentication() instanceof AnonymousAuthenticationToken)) {
+            User user = FindUtils.findUserByUid(userRepository, AuthServiceCommon.getUserLogin());
+            recommended = recommendationCache.getPage(user.getId(), categoryId, currentLimit, currentPage);
+        }
+
+        if (recommended == null && categoryId != null) {
+            return ResponseEntity.ok(mapper.map(recipeRepository.findByCategoryId(categoryId, 0, currentLimit,
+                                                                                  currentLimit * currentPage),
+                                                new TypeToken<List<RecipeDto>>() {
+                                                }.getType()));
+        }
+        if (recommended == null) {
+            recommended = coldStartPool.getTopPage(currentLimit, currentPage);
+        }
+        // the unrated recipes are not split by categories, so a filtered page is not padded
+        if (categoryId == null && recommended.length < currentLimit) {
+            long[] padding = coldStartPool.sampleUnrated(currentLimit - recommended.length);
+            long[] ids = Arrays.copyOf(recommended, recommended.length + padding.length);
+            System.arraycopy(padding, 0, ids, recommended.length, padding.length);
+            recommended = ids;
+        }
+        List<RecipeDto> recipeDtos = mapper.map(findRecipesInOrder(recommended), new TypeToken<List<RecipeDto>>() {
+        }.getType());
+        return ResponseEntity.ok(recipeDtos);
+    }
+
+    @Override
+    public ResponseEntity<List<RecipeDto>> getSimilarRecipes(Long id, Integer limit) throws NotFoundException {
+        if (!recipeRepository.existsById(id)) {
+            throw new NotFoundException("Couldn't find recipe with id: " + id);
+        }
+        long[] similar = similarRecipes.findSimilar(id, GetUtil.getCurrentLimit(limit));
+        return ResponseEntity.ok(mapper.map(findRecipesInOrder(similar), new TypeToken<List<RecipeDto>>() {
+        }.getType()));
+    }
+
+    @Override
+    public ResponseEntity<List<RecipeDto>> getRecipesByIngredients(List<String> ingredients, Boolean all, Integer limit,
+                                                                   Integer page) {
+        int currentLimit = GetUtil.getCurrentLimit(limit);
+        int currentPage = GetUtil.getCurrentPage(page);
+        Set<String> names = new HashSet<>(ingredients);
+        // unknown ingredients are in no recipe, they can only empty the result of an "all" search
+        List<Ingredient> known = ingredientRepository.findByNameIn(names);
+        boolean allIngredients = Boolean.TRUE.equals(all);
+        if (allIngredients && known.size() < names.size()) {
+            return ResponseEntity.ok(List.of());
+        }
+        long[] found = recipesByIngredients.search(known.stream().mapToLong(Ingredient::getId).toArray(),
+                                                   allIngredients, currentLimit * (currentPage + 1));
+        long[] ids = Arrays.copyOfRange(found, Math.min(found.length, currentLimit * currentPage), found.length);
+        return ResponseEntity.ok(mapper.map(findRecipesInOrder(ids), new TypeToken<List<RecipeDto>>() {
+        }.getType()));
+    }
+
+    @Override
+    public ResponseEntity<FilteredRecipesDto> filterRecipes(RecipeFilter filter, Integer limit, Integer page,
+                                                            String cursor) throws BadRequestException {
+        int currentLimit = GetUtil.getCurrentLimit(limit);
+        PageCursor after = PageCursor.decode(cursor, 1);
+        long beforeId = after == null ? Long.MAX_VALUE : after.getLong(0);
+        RecipeAttributeStore.FilterResult result = recipeFacets.filter(
+                filter, beforeId, PageCursor.getOffset(cursor, currentLimit, page), currentLimit);
+        FilteredRecipesDto filtered = new FilteredRecipesDto()
+                .recipes(mapper.map(findRecipesInOrder(result.ids()), new TypeToken<List<RecipeDto>>() {
+                }.getType()))
+                .total(result.total());
+        for (RecipeFacet facet : RecipeFacet.values()) {
+            FacetDto facetDto = new FacetDto().name(facet.getKey()).buckets(new ArrayList<>());
+            int[] counts = result.getCounts(facet);
+            for (int bucket = 0; bucket < counts.length; ++bucket) {
+                Float to = facet.getBucketTo(bucket);
+                facetDto.addBucketsItem(new FacetBucketDto().from((double) facet.getBucketFrom(bucket))
+                                                .to(to == null ? null : to.doubleValue()).count(counts[bucket]));
+            }
+            filtered.addFacetsItem(facetDto);
+        }
+        result.categoryCounts().forEach(
+                (categoryId, count) -> filtered.addCategoriesItem(new CategoryCountDto().id(categoryId).count(count)));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.ids().length >= currentLimit) {
+            response.header(Constants.NEXT_CURSOR_HEADER, PageCursor.encode(result.ids()[result.ids().length - 1]));
+        }
+        return response.body(filtered);
+    }
+
+    private List<Recipe> findRecipesInOrder(long[] ids) {
+        Map<Long, Recipe> recipes = new HashMap<>();
+        recipeRepository.findAllById(Arrays.stream(ids).boxed().toList()).forEach(
+                recipe -> recipes.put(recipe.getId(), recipe));
+        return Arrays.stream(ids).mapToObj(recipes::get).filter(Objects::nonNull).toList();
     }
 
     @Override
@@ -0,0 +1,126 @@
+package voicerecipeserver.services.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import voicerecipeserver.model.dto.CollectionDto;
+import voicerecipeserver.model.dto.RecipeDto;
+import voicerecipeserver.model.dto.SearchResultsDto;
+import voicerecipeserver.model.dto.UserProfileDto;
+import voicerecipeserver.security.service.UserService;
+import voicerecipeserver.services.CollectionService;
+import voicerecipeserver.services.RecipeService;
+import voicerecipeserver.services.SearchService;
+import voicerecipeserver.utils.FutureUtils;
+import voicerecipeserver.utils.GetUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class SearchServiceImpl implements SearchService {
+    private static final Logger logger = LoggerFactory.getLogger(SearchServiceImpl.class);
+
+    private final RecipeService recipeService;
+    private final CollectionService collectionService;
+    private final UserService userService;
+    private final ExecutorService searchExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JdbcTemplate jdbcTemplate;
+    private final long deadlineMs;
+
+    @Autowired
+    public SearchServiceImpl(RecipeService recipeService, CollectionService collectionService,
+                             UserService userService, @Qualifier("searchExecutor") ExecutorService searchExecutor,
+                             PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate,
+                             @Value("${search.deadline-ms:500}") long deadlineMs) {
+        this.recipeService = recipeService;
+        this.collectionService = collectionService;
+        this.userService = userService;
+        this.searchExecutor = searchExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jdbcTemplate = jdbcTemplate;
+        this.deadlineMs = deadlineMs;
+    }
+
+    @Override
+    public ResponseEntity<SearchResultsDto> search(String query, Integer limit) {
+        int currentLimit = GetUtil.getCurrentLimit(limit);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        Future<List<RecipeDto>> recipes = submit(
+                () -> recipeService.searchRecipesByName(query, currentLimit, 0, null), deadline);
+        Future<List<CollectionDto>> collections = submit(
+                () -> collectionService.getCollectionsByName(query, currentLimit, 0, null), deadline);
+        Future<List<UserProfileDto>> profiles = submit(
+                () -> userService.getUserProfilesByPartLogin(query, currentLimit, 0, null), deadline);
+        SearchResultsDto results = new SearchResultsDto().missing(new ArrayList<>());
+        // the deadline is shared, the later sources get what is left of it
+        results.recipes(await("recipes", recipes, deadline, results));
+        results.collections(await("collections", collections, deadline, results));
+        results.profiles(await("profiles", profiles, deadline, results));
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Runs the search on the search executor in a read-only transaction, the request thread's session is not
+     * available there and the mapping to dtos needs one. Cancelling the future only interrupts the thread, so the
+     * statements of the transaction are limited to the time left until the deadline, a late query is stopped by the
+     * database and frees its thread and connection.
+     *
+     * @return null if the executor is saturated
+     */
+    private <T> Future<List<T>> submit(Callable<ResponseEntity<List<T>>> search, long deadline) {
+        try {
+            return searchExecutor.submit(() -> readOnlyTransaction.execute(status -> {
+                long timeoutMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (timeoutMs <= 0) {
+                    // the deadline passed while the search was queued
+                    return null;
+                }
+                jdbcTemplate.execute("SET LOCAL statement_timeout = " + timeoutMs);
+                try {
+                    return search.call().getBody();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private static <T> List<T> await(String source, Future<List<T>> future, long deadline, SearchResultsDto results) {
+        List<T> found = null;
+        if (future != null) {
+            try {
+                found = FutureUtils.getBefore(future, deadline);
+            } catch (ExecutionException e) {
+                logger.warn("Search of {} failed", source, e.getCause());
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (found == null) {
+            results.addMissingItem(source);
+            return List.of();
+        }
+        return found;
+    }
+}
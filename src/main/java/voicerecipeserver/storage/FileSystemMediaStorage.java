@@ -0,0 +1,188 @@
+package voicerecipeserver.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import voicerecipeserver.model.exceptions.MediaStorageException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@link MediaStorage} in a local directory. A content is stored in the file named by its hash in a two level tree of
+ * directories named by the first two pairs of the hash characters, so no directory gets too many entries. A content is
+ * written to a temporary file first and then moved to its place at once, a reader never sees a partial file.
+ * <p>
+ * Failures of the file system are thrown as {@link MediaStorageException}, failures to read an uploaded content are
+ * passed as they are.
+ */
+@Component
+@ConditionalOnProperty(name = "media.storage.type", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemMediaStorage implements MediaStorage {
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final String TEMP_DIRECTORY = "tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemMediaStorage.class);
+
+    private final Path root;
+
+    @Autowired
+    public FileSystemMediaStorage(@Value("${media.storage.path:media}") Path root) throws IOException {
+        this.root = root.toAbsolutePath();
+        Files.createDirectories(this.root.resolve(TEMP_DIRECTORY));
+    }
+
+    @Override
+    public StoredContent put(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp;
+        try {
+            temp = Files.createTempFile(root.resolve(TEMP_DIRECTORY), "upload", null);
+        } catch (IOException e) {
+            throw new MediaStorageException("Failed to create a temporary file in " + root, e);
+        }
+        boolean reading = false;
+        try {
+            long size = 0;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                 OutputStream out = new DigestOutputStream(Channels.newOutputStream(channel), digest)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                while (true) {
+                    reading = true;
+                    int n = content.read(buffer);
+                    reading = false;
+                    if (n == -1) {
+                        break;
+                    }
+                    out.write(buffer, 0, n);
+                    size += n;
+                }
+                out.flush();
+                channel.force(true);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            if (Files.exists(target)) {
+                // the content is referenced again, it must outlive the grace period of the sweep
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            } else {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // stored meanwhile by a concurrent upload of the same content
+                }
+            }
+            return new StoredContent(hash, size);
+        } catch (IOException e) {
+            if (reading) {
+                // the upload has failed, not the storage
+                throw e;
+            }
+            throw new MediaStorageException("Failed to store a content in " + root, e);
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                logger.warn("Failed to delete temporary file {}", temp, e);
+            }
+        }
+    }
+
+    @Override
+    public InputStream open(String hash) throws IOException {
+        Path path = pathOf(hash);
+        try {
+            return Files.newInputStream(path);
+        } catch (IOException e) {
+            throw new MediaStorageException("Failed to open content " + path, e);
+        }
+    }
+
+    @Override
+    public Resource getResource(String hash) throws IOException {
+        Path path = pathOf(hash);
+        if (!Files.exists(path)) {
+            throw new MediaStorageException("Missing content " + path, new NoSuchFileException(path.toString()));
+        }
+        // reads through a file channel, a range is reached by a seek and not by reading up to it
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.exists(pathOf(hash));
+    }
+
+    @Override
+    public Stream<String> findStoredBefore(Instant before) throws IOException {
+        Path temp = root.resolve(TEMP_DIRECTORY);
+        Stream<Path> files;
+        try {
+            files = Files.walk(root, 3);
+        } catch (IOException e) {
+            throw new MediaStorageException("Failed to list " + root, e);
+        }
+        return files.filter(path -> !path.startsWith(temp))
+                .filter(path -> HASH.matcher(path.getFileName().toString()).matches())
+                .filter(path -> isStoredBefore(path, before))
+                .map(path -> path.getFileName().toString());
+    }
+
+    @Override
+    public boolean deleteIfStoredBefore(String hash, Instant before) throws IOException {
+        Path path = pathOf(hash);
+        // checked right before the deletion, a content stored again after it was listed is kept
+        if (!isStoredBefore(path, before)) {
+            return false;
+        }
+        try {
+            return Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new MediaStorageException("Failed to delete content " + path, e);
+        }
+    }
+
+    private static boolean isStoredBefore(Path path, Instant before) {
+        try {
+            return Files.isRegularFile(path) && Files.getLastModifiedTime(path).toInstant().isBefore(before);
+        } catch (IOException e) {
+            // deleted meanwhile
+            return false;
+        }
+    }
+
+    Path pathOf(String hash) {
+        if (!HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Not a content hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
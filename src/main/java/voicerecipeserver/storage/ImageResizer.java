@@ -0,0 +1,230 @@
+package voicerecipeserver.storage;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.w3c.dom.Node;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Downscales JPEG and PNG images with the codecs of the JDK. An image is decoded once for all the variants, they are
+ * produced from the largest to the smallest, each from the previous one, by halving steps with bilinear
+ * interpolation, which keeps the quality of a large reduction close to an area average at a fraction of its cost.
+ * <p>
+ * Cameras store a photo as it was taken and note the rotation in the Exif orientation tag, which browsers apply. The
+ * variants are turned upright, each after it is scaled, where it is small, and are written without the tag.
+ */
+public class ImageResizer {
+    private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+    private static final int APP1_MARKER = 0xE1;
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+    private static final int ORIENTATION_TAG = 0x0112;
+    private static final int ORIENTATION_NORMAL = 1;
+
+    private final long maxPixels;
+    private final float jpegQuality;
+
+    /**
+     * @param maxPixels images with more pixels are not decoded, a small file may expand to a huge image
+     */
+    public ImageResizer(long maxPixels, float jpegQuality) {
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+    }
+
+    /**
+     * @param format "jpeg" or "png", the variants are of the same format
+     * @return encoded variants, a variant the image already fits into is absent. Null if the image can't be decoded
+     * or is too large.
+     */
+    public Map<ImageVariant, byte[]> resize(InputStream image, String format) throws IOException {
+        int[] orientation = {ORIENTATION_NORMAL};
+        BufferedImage source = decode(image, orientation);
+        if (source == null) {
+            return null;
+        }
+        Map<ImageVariant, byte[]> variants = new EnumMap<>(ImageVariant.class);
+        BufferedImage current = source;
+        for (int i = ImageVariant.values().length - 1; i >= 0; --i) {
+            ImageVariant variant = ImageVariant.values()[i];
+            double scale = (double) variant.getMaxSide() / Math.max(source.getWidth(), source.getHeight());
+            if (scale >= 1) {
+                continue;
+            }
+            int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+            current = scale(current, width, height);
+            variants.put(variant, encode(orient(current, orientation[0]), format));
+        }
+        return variants;
+    }
+
+    /**
+     * @param orientation receives the Exif orientation of the image
+     */
+    private BufferedImage decode(InputStream image, int[] orientation) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(image)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+                // the header is read without decoding the pixels
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    return null;
+                }
+                orientation[0] = readOrientation(reader.getImageMetadata(0));
+                return reader.read(0);
+            } catch (javax.imageio.IIOException e) {
+                // a broken or unsupported image, like a CMYK JPEG
+                return null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static int readOrientation(IIOMetadata metadata) {
+        if (metadata == null || !JPEG_METADATA_FORMAT.equals(metadata.getNativeMetadataFormatName())) {
+            return ORIENTATION_NORMAL;
+        }
+        Node markers = ((IIOMetadataNode) metadata.getAsTree(JPEG_METADATA_FORMAT))
+                .getElementsByTagName("markerSequence").item(0);
+        for (Node marker = markers == null ? null : markers.getFirstChild(); marker != null;
+             marker = marker.getNextSibling()) {
+            // the reader keeps the application segments it doesn't know as they are
+            if (marker.getNodeName().equals("unknown")
+                    && String.valueOf(APP1_MARKER).equals(((IIOMetadataNode) marker).getAttribute("MarkerTag"))
+                    && ((IIOMetadataNode) marker).getUserObject() instanceof byte[] data) {
+                int orientation = exifOrientation(data);
+                if (orientation != ORIENTATION_NORMAL) {
+                    return orientation;
+                }
+            }
+        }
+        return ORIENTATION_NORMAL;
+    }
+
+    /**
+     * @param app1 content of an APP1 segment
+     * @return orientation tag of the first IFD of the Exif segment, 1 for another segment or a malformed one
+     */
+    static int exifOrientation(byte[] app1) {
+        if (app1.length < EXIF_HEADER.length + 8
+                || !Arrays.equals(app1, 0, EXIF_HEADER.length, EXIF_HEADER, 0, EXIF_HEADER.length)) {
+            return ORIENTATION_NORMAL;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(app1, EXIF_HEADER.length, app1.length - EXIF_HEADER.length).slice();
+        if (tiff.get(0) == 'I' && tiff.get(1) == 'I') {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (tiff.get(0) != 'M' || tiff.get(1) != 'M') {
+            return ORIENTATION_NORMAL;
+        }
+        int ifd = tiff.getInt(4);
+        if (tiff.getShort(2) != 42 || ifd < 8 || ifd > tiff.limit() - 2) {
+            return ORIENTATION_NORMAL;
+        }
+        int entries = Short.toUnsignedInt(tiff.getShort(ifd));
+        for (int entry = ifd + 2; entries > 0 && entry <= tiff.limit() - 12; entry += 12, --entries) {
+            if (Short.toUnsignedInt(tiff.getShort(entry)) == ORIENTATION_TAG) {
+                // a SHORT value is in the first two bytes of the value field
+                int orientation = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                return orientation >= 1 && orientation <= 8 ? orientation : ORIENTATION_NORMAL;
+            }
+        }
+        return ORIENTATION_NORMAL;
+    }
+
+    /**
+     * Turns the image as it is meant to be seen, the pixels are moved as they are
+     */
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        // maps a point of the stored image to the upright one, orientations 5 to 8 swap the sides
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);
+            default -> null;
+        };
+        if (transform == null) {
+            return image;
+        }
+        BufferedImage result = orientation >= 5 ? new BufferedImage(h, w, image.getType()) :
+                new BufferedImage(w, h, image.getType());
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage result = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(result, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            result = step;
+        } while (currentWidth != width || currentHeight != height);
+        return result;
+    }
+
+    private byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!format.equals("jpeg")) {
+            ImageIO.write(image, format, out);
+            return out.toByteArray();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
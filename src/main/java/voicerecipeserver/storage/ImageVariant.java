@@ -0,0 +1,38 @@
+package voicerecipeserver.storage;
+
+/**
+ * Downscaled copy of an image, the image is fitted into a square of the side keeping its proportions
+ */
+public enum ImageVariant {
+    SMALL("small", 160),
+    MEDIUM("medium", 480),
+    LARGE("large", 1080);
+
+    private final String key;
+    private final int maxSide;
+
+    ImageVariant(String key, int maxSide) {
+        this.key = key;
+        this.maxSide = maxSide;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getMaxSide() {
+        return maxSide;
+    }
+
+    /**
+     * @return null if there is no variant with the key
+     */
+    public static ImageVariant fromKey(String key) {
+        for (ImageVariant variant : values()) {
+            if (variant.key.equals(key)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,59 @@
+package voicerecipeserver.storage;
+
+import voicerecipeserver.model.exceptions.MediaTooLargeException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stream which fails as soon as more than the limit is read from it, so an oversized upload is cut off without being
+ * read to the end
+ */
+public class LimitedInputStream extends FilterInputStream {
+    private final long maxSize;
+    private long size;
+
+    public LimitedInputStream(InputStream in, long maxSize) {
+        super(in);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        // one byte over the limit is enough to know the stream is too large
+        int n = super.read(b, off, (int) Math.min(len, maxSize - size + 1));
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(Math.min(n, maxSize - size + 1));
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long n) throws MediaTooLargeException {
+        size += n;
+        if (size > maxSize) {
+            throw new MediaTooLargeException(maxSize);
+        }
+    }
+}
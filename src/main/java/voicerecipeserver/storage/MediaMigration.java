@@ -0,0 +1,74 @@
+package voicerecipeserver.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import voicerecipeserver.respository.MediaRepository;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Moves the media contents stored in the file_data column to {@link MediaStorage} in the background, a batch of rows
+ * per run. Rows are read one at a time by id, so the table is never loaded as a whole. A row is switched to the
+ * storage only after its content is stored, and only if nobody did it meanwhile, so several nodes may run the
+ * migration together and a stopped migration resumes where it was.
+ */
+@Component
+@ConditionalOnProperty(name = "media.storage.migration.enabled", havingValue = "true")
+public class MediaMigration {
+    private static final Logger logger = LoggerFactory.getLogger(MediaMigration.class);
+
+    private final MediaRepository mediaRepository;
+    private final MediaStorage mediaStorage;
+    private final int batchSize;
+    private long lastId;
+    private long moved;
+    private boolean done;
+
+    @Autowired
+    public MediaMigration(MediaRepository mediaRepository, MediaStorage mediaStorage,
+                          @Value("${media.storage.migration.batch-size:100}") int batchSize) {
+        this.mediaRepository = mediaRepository;
+        this.mediaStorage = mediaStorage;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${media.storage.migration.delay-ms:1000}",
+            fixedDelayString = "${media.storage.migration.delay-ms:1000}")
+    public void migrateBatch() {
+        if (done) {
+            return;
+        }
+        List<Long> ids = mediaRepository.findIdsStoredInDatabase(lastId, batchSize);
+        if (ids.isEmpty()) {
+            done = true;
+            logger.info("Media migration finished, {} contents moved to the media storage", moved);
+            return;
+        }
+        for (long id : ids) {
+            try {
+                if (migrate(id)) {
+                    ++moved;
+                }
+            } catch (IOException e) {
+                // the row stays in the database, it is retried by the next start
+                logger.warn("Failed to move the content of media {} to the media storage", id, e);
+            }
+            lastId = id;
+        }
+        logger.debug("Media migration moved {} contents, last media id {}", moved, lastId);
+    }
+
+    boolean migrate(long id) throws IOException {
+        MediaStorage.StoredContent[] stored = {null};
+        if (!mediaRepository.readFileData(id, data -> stored[0] = mediaStorage.put(data))) {
+            return false;
+        }
+        return mediaRepository.moveToStorage(id, stored[0].hash(), stored[0].size()) > 0;
+    }
+}
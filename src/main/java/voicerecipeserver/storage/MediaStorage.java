@@ -0,0 +1,54 @@
+package voicerecipeserver.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Store of media contents outside the database. Contents are addressed by the SHA-256 of their bytes, so storing
+ * equal contents twice keeps one copy and a stored content never changes.
+ */
+public interface MediaStorage {
+    /**
+     * Reads the stream to the end and stores its bytes. A failure to read the stream is thrown as it is. Storing a
+     * content which is already stored renews its time, see {@link #findStoredBefore}.
+     *
+     * @return address and size of the stored content
+     */
+    StoredContent put(InputStream content) throws IOException;
+
+    /**
+     * @throws voicerecipeserver.model.exceptions.MediaStorageException if there is no content with the hash or it can't be read
+     */
+    InputStream open(String hash) throws IOException;
+
+    /**
+     * @return the content as a resource which knows its length and can be read from any position, for serving ranges
+     * @throws voicerecipeserver.model.exceptions.MediaStorageException if there is no content with the hash or it can't be read
+     */
+    Resource getResource(String hash) throws IOException;
+
+    boolean exists(String hash);
+
+    /**
+     * @return hashes of the contents last stored before the time, the stream has to be closed
+     */
+    Stream<String> findStoredBefore(Instant before) throws IOException;
+
+    /**
+     * Deletes the content if it was last stored before the time, a content stored again meanwhile is kept
+     *
+     * @return true if the content was deleted
+     */
+    boolean deleteIfStoredBefore(String hash, Instant before) throws IOException;
+
+    /**
+     * @param hash lower case hex SHA-256 of the content
+     * @param size number of bytes of the content
+     */
+    record StoredContent(String hash, long size) {
+    }
+}
@@ -0,0 +1,81 @@
+package voicerecipeserver.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import voicerecipeserver.respository.MediaRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Deletes the contents of {@link MediaStorage} no media and no media variant references: contents of the deleted
+ * media, of the uploads whose row was never saved and the variants of both. A content is stored before the row which
+ * references it, so only the contents older than the grace period are deleted, and storing a content again renews
+ * its time. Several nodes may sweep together.
+ */
+@Component
+@ConditionalOnProperty(name = "media.storage.sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class MediaSweeper {
+    private static final Logger logger = LoggerFactory.getLogger(MediaSweeper.class);
+
+    private final MediaRepository mediaRepository;
+    private final MediaStorage mediaStorage;
+    private final long graceMillis;
+    private final int batchSize;
+
+    @Autowired
+    public MediaSweeper(MediaRepository mediaRepository, MediaStorage mediaStorage,
+                        @Value("${media.storage.sweep.grace-ms:86400000}") long graceMillis,
+                        @Value("${media.storage.sweep.batch-size:1000}") int batchSize) {
+        this.mediaRepository = mediaRepository;
+        this.mediaStorage = mediaStorage;
+        this.graceMillis = graceMillis;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${media.storage.sweep.interval-ms:86400000}",
+            fixedDelayString = "${media.storage.sweep.interval-ms:86400000}")
+    public void sweep() {
+        Instant before = Instant.now().minusMillis(graceMillis);
+        int variants = mediaRepository.deleteOrphanedVariants();
+        long deleted = 0;
+        try (Stream<String> stored = mediaStorage.findStoredBefore(before)) {
+            Iterator<String> hashes = stored.iterator();
+            List<String> batch = new ArrayList<>(batchSize);
+            while (hashes.hasNext()) {
+                batch.add(hashes.next());
+                if (batch.size() == batchSize || !hashes.hasNext()) {
+                    deleted += deleteUnreferenced(batch, before);
+                    batch.clear();
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // the rest is swept by the next run
+            logger.warn("Media storage sweep failed", e);
+        }
+        logger.info("Media storage swept, {} unreferenced contents and {} variant rows deleted", deleted, variants);
+    }
+
+    private long deleteUnreferenced(List<String> hashes, Instant before) throws IOException {
+        Set<String> referenced = new HashSet<>(mediaRepository.findReferencedHashes(hashes));
+        long deleted = 0;
+        for (String hash : hashes) {
+            if (!referenced.contains(hash) && mediaStorage.deleteIfStoredBefore(hash, before)) {
+                ++deleted;
+            }
+        }
+        return deleted;
+    }
+}
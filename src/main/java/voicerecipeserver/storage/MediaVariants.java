@@ -0,0 +1,125 @@
+package voicerecipeserver.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import voicerecipeserver.respository.MediaRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Downscaled variants of the uploaded images, produced in the background and stored in {@link MediaStorage} next to
+ * the originals. Variants belong to a content, not to a media, equal images uploaded twice share them. A variant the
+ * image already fits into is the image itself.
+ * <p>
+ * Variants are requested at upload and again whenever a missing variant is asked for, so a variant lost to a full
+ * queue or a restart, as well as the variants of the images uploaded before, are produced on the first demand.
+ */
+@Component
+public class MediaVariants {
+    private static final Logger logger = LoggerFactory.getLogger(MediaVariants.class);
+    /**
+     * Bytes of heap a decoded pixel takes at most: four of an ARGB pixel and the halving steps, which add a third
+     */
+    private static final int BYTES_PER_PIXEL = 6;
+    /**
+     * Part of the heap the resizing threads may take together
+     */
+    private static final int HEAP_SHARE = 4;
+
+    private final MediaRepository mediaRepository;
+    private final MediaStorage mediaStorage;
+    private final ExecutorService executor;
+    private final ImageResizer resizer;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public MediaVariants(MediaRepository mediaRepository, MediaStorage mediaStorage,
+                         @Qualifier("mediaVariantsExecutor") ExecutorService executor,
+                         @Value("${media.variants.threads:2}") int threads,
+                         @Value("${media.variants.max-pixels:0}") long maxPixels,
+                         @Value("${media.variants.jpeg-quality:0.85}") float jpegQuality) {
+        this.mediaRepository = mediaRepository;
+        this.mediaStorage = mediaStorage;
+        this.executor = executor;
+        // 0 sizes the limit by the heap
+        long limit = maxPixels > 0 ? maxPixels : maxPixels(Runtime.getRuntime().maxMemory(), threads);
+        this.resizer = new ImageResizer(limit, jpegQuality);
+    }
+
+    /**
+     * @return the largest image every resizing thread can decode at once within a quarter of the heap, about 11
+     * million pixels with a 512 MB heap and two threads
+     */
+    static long maxPixels(long maxMemory, int threads) {
+        return maxMemory / HEAP_SHARE / Math.max(1, threads) / BYTES_PER_PIXEL;
+    }
+
+    /**
+     * @return ImageIO format of the variants, null if the media of the type has no variants
+     */
+    public static String formatOf(String mimeType) {
+        return switch (mimeType) {
+            case "image/jpeg" -> "jpeg";
+            case "image/png" -> "png";
+            default -> null;
+        };
+    }
+
+    /**
+     * @return hash of the stored variant, empty if it is not produced yet
+     */
+    public Optional<String> findVariant(String hash, ImageVariant variant) {
+        return mediaRepository.findVariantHash(hash, variant.getKey());
+    }
+
+    /**
+     * Queues production of the variants of the content, does nothing if they are being produced or the media has
+     * no variants
+     */
+    public void produce(String hash, String mimeType) {
+        String format = formatOf(mimeType);
+        if (format == null || !pending.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    produceNow(hash, format);
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Failed to produce variants of media content {}", hash, e);
+                } finally {
+                    pending.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // produced on a later demand
+            pending.remove(hash);
+            logger.debug("Variants of media content {} are not queued, the queue is full", hash);
+        }
+    }
+
+    void produceNow(String hash, String format) throws IOException {
+        Map<ImageVariant, byte[]> resized;
+        try (InputStream image = mediaStorage.open(hash)) {
+            resized = resizer.resize(image, format);
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            // an image which can't be resized is its own variant, so it is not tried again
+            byte[] data = resized == null ? null : resized.get(variant);
+            String variantHash = data == null ? hash : mediaStorage.put(new ByteArrayInputStream(data)).hash();
+            mediaRepository.saveVariant(hash, variant.getKey(), variantHash);
+        }
+    }
+}
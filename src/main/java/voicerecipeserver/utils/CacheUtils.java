@@ -0,0 +1,59 @@
+package voicerecipeserver.utils;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+public class CacheUtils {
+    /**
+     * Cache-Control of the responses which never change: cached by anyone for a year and not revalidated
+     */
+    public static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    /**
+     * Cache-Control of the responses which may be replaced: cached, but revalidated before every use
+     */
+    public static final String NO_CACHE = "no-cache";
+
+    private CacheUtils() {
+    }
+
+    /**
+     * Evaluates the conditional GET headers: If-None-Match is compared with the ETag, If-Modified-Since is only used
+     * if there is no If-None-Match
+     *
+     * @param ifNoneMatch     If-None-Match of the request, null if there is none
+     * @param ifModifiedSince If-Modified-Since of the request, null if there is none
+     * @param etag            quoted strong ETag of the response, null if it has none
+     * @param lastModified    Last-Modified of the response, null if it has none
+     * @return true if the client's copy is current and 304 Not Modified can be sent
+     */
+    public static boolean isNotModified(String ifNoneMatch, String ifModifiedSince, String etag,
+                                        Instant lastModified) {
+        if (ifNoneMatch != null) {
+            if (etag == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                // weak comparison, a weak tag matches the strong one with the same value
+                if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (ifModifiedSince == null || lastModified == null) {
+            return false;
+        }
+        try {
+            Instant since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            // HTTP dates have no fractions of a second
+            return !lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(since);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package voicerecipeserver.utils;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class FutureUtils {
+    private FutureUtils() {
+    }
+
+    /**
+     * Waits for the result until a deadline shared by several futures, a future which is not done by then is
+     * cancelled. Cancelling only interrupts the thread, a blocking call that ignores interrupts, like a JDBC query,
+     * has to be limited by the task itself.
+     *
+     * @param deadlineNanos {@link System#nanoTime()} of the deadline
+     * @return the result, null if the future is not done by the deadline or was cancelled
+     * @throws ExecutionException if the future failed
+     */
+    public static <T> T getBefore(Future<T> future, long deadlineNanos) throws InterruptedException,
+            ExecutionException {
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return null;
+        } catch (CancellationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package voicerecipeserver.utils;
+
+import org.springframework.http.ResponseEntity;
+import voicerecipeserver.config.Constants;
+import voicerecipeserver.model.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque cursor of keyset pagination: the sort key of the last row of a page. The next page is selected with
+ * "WHERE key > :cursorKey ORDER BY key LIMIT :limit", which reads only the rows of the page, while OFFSET reads and
+ * throws away all rows of the previous pages.
+ * <p>
+ * The key values are joined with a zero char, which can't occur in Postgres text, and encoded with URL-safe base64.
+ */
+public class PageCursor {
+    private static final char SEPARATOR = '\0';
+
+    private final String[] keys;
+
+    private PageCursor(String[] keys) {
+        this.keys = keys;
+    }
+
+    public static String encode(Object... keys) {
+        String joined = Arrays.stream(keys).map(String::valueOf).collect(Collectors.joining(String.valueOf(SEPARATOR)));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param keysCount number of the sort key values the cursor of the list has
+     * @return decoded cursor or null if there is no cursor
+     */
+    public static PageCursor decode(String cursor, int keysCount) throws BadRequestException {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        String joined;
+        try {
+            joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        String[] keys = joined.split(String.valueOf(SEPARATOR), -1);
+        if (keys.length != keysCount) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return new PageCursor(keys);
+    }
+
+    public String getString(int index) {
+        return keys[index];
+    }
+
+    public long getLong(int index) throws BadRequestException {
+        try {
+            return Long.parseLong(keys[index]);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public float getFloat(int index) throws BadRequestException {
+        try {
+            return Float.parseFloat(keys[index]);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Rows to skip for a page requested by number. With a cursor the page number is ignored, the first page is also
+     * served by the seek query with the start key.
+     */
+    public static int getOffset(String cursor, int limit, Integer page) {
+        return cursor == null || cursor.isEmpty() ? limit * GetUtil.getCurrentPage(page) : 0;
+    }
+
+    /**
+     * @param nextCursor cursor of the next page, null if the page is the last one
+     * @return the page with the cursor in the {@link Constants#NEXT_CURSOR_HEADER} header
+     */
+    public static <T> ResponseEntity<List<T>> toResponse(List<T> page, String nextCursor) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(Constants.NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(page);
+    }
+
+    /**
+     * @return true if there may be a page after the one of the given size
+     */
+    public static boolean hasNext(List<?> page, int limit) {
+        return !page.isEmpty() && page.size() >= limit;
+    }
+}
@@ -0,0 +1,29 @@
+package voicerecipeserver.utils;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class SearchUtils {
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private SearchUtils() {
+    }
+
+    /**
+     * Builds a full-text query matching every word of the text as a prefix, so a query typed so far finds the
+     * recipes whose name words start with it. Only letters and digits are kept, the result is safe to pass to
+     * to_tsquery.
+     *
+     * @return query like "кур:* & суп:*" or an empty string if the text has no words
+     */
+    public static String toPrefixTsQuery(String text) {
+        StringJoiner query = new StringJoiner(" & ");
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            query.add(matcher.group().toLowerCase(Locale.ROOT) + ":*");
+        }
+        return query.toString();
+    }
+}
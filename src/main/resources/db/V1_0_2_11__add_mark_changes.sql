@@ -0,0 +1,28 @@
+CREATE TABLE IF NOT EXISTS mark_changes
+(
+    id bigint GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL,
+    recipe_id bigint NOT NULL,
+    mark smallint,
+    changed_at timestamp NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS mark_changes_changed_at_idx ON mark_changes (changed_at);
+
+CREATE OR REPLACE FUNCTION log_mark_change() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO mark_changes (user_id, recipe_id, mark) VALUES (OLD.user_id, OLD.recipe_id, NULL);
+        RETURN OLD;
+    END IF;
+    INSERT INTO mark_changes (user_id, recipe_id, mark) VALUES (NEW.user_id, NEW.recipe_id, NEW.mark);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER marks_log_change
+    AFTER INSERT OR UPDATE OR DELETE
+    ON marks
+    FOR EACH ROW
+EXECUTE FUNCTION log_mark_change();
@@ -0,0 +1,5 @@
+ALTER TABLE recipes
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+        GENERATED ALWAYS AS (to_tsvector('russian', coalesce(name, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS recipes_search_vector_idx ON recipes USING GIN (search_vector);
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS collections_author_id_idx ON collections (author_id, id);
+CREATE INDEX IF NOT EXISTS collections_name_idx ON collections (name, id);
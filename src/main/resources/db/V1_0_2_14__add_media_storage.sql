@@ -0,0 +1,6 @@
+ALTER TABLE media
+    ALTER COLUMN file_data DROP NOT NULL,
+    ADD COLUMN content_hash char(64),
+    ADD COLUMN size bigint,
+    ADD CONSTRAINT media_content_check CHECK (file_data IS NOT NULL OR content_hash IS NOT NULL);
+CREATE INDEX IF NOT EXISTS media_in_database_idx ON media (id) WHERE content_hash IS NULL;
@@ -0,0 +1,2 @@
+ALTER TABLE media
+    ADD COLUMN created_at timestamptz NOT NULL DEFAULT now();
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS media_variants
+(
+    source_hash char(64) NOT NULL,
+    variant varchar(16) NOT NULL,
+    variant_hash char(64) NOT NULL,
+    PRIMARY KEY (source_hash, variant)
+);
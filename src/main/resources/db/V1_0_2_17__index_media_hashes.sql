@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS media_content_hash_idx ON media (content_hash);
+CREATE INDEX IF NOT EXISTS media_variants_variant_hash_idx ON media_variants (variant_hash);
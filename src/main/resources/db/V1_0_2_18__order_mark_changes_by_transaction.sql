@@ -0,0 +1,6 @@
+ALTER TABLE mark_changes
+    ALTER COLUMN changed_at TYPE timestamptz,
+    ALTER COLUMN changed_at SET DEFAULT clock_timestamp(),
+    ADD COLUMN IF NOT EXISTS xact_id xid8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE INDEX IF NOT EXISTS mark_changes_xact_id_idx ON mark_changes (xact_id);
@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,22 +19,30 @@ import voicerecipeserver.model.dto.StepDto;
 import voicerecipeserver.model.entities.Recipe;
 import voicerecipeserver.model.entities.Role;
 import voicerecipeserver.model.entities.User;
+import voicerecipeserver.respository.MediaRepository;
+import voicerecipeserver.respository.MediaTypeRepository;
 import voicerecipeserver.respository.RecipeRepository;
 import voicerecipeserver.respository.UserRepository;
 import voicerecipeserver.security.domain.JwtAuthentication;
 import voicerecipeserver.services.impl.RecipeServiceImpl;
+import voicerecipeserver.storage.MediaStorage;
 import voicerecipeserver.utils.GetUtil;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.*;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "media.upload.max-size=1KB")
 @AutoConfigureMockMvc
 
 public class TestingWebApplicationTests {
@@ -49,6 +58,12 @@ public class TestingWebApplicationTests {
     private MockMvc mockMvc;
     @MockBean
     private UserRepository userRepository;
+    @MockBean
+    private MediaRepository mediaRepository;
+    @MockBean
+    private MediaTypeRepository mediaTypeRepository;
+    @Autowired
+    private MediaStorage mediaStorage;
 
     @Test
     public void findRecipeByIdReturnsRecipe() throws Exception {
@@ -73,7 +88,8 @@ public class TestingWebApplicationTests {
         Recipe recipe2 = Recipe.builder().id(3L).author(User.builder().uid("admin").id(1L).build()).name(
                 "Очень-очень горячая курица").cookTimeMins(30).build();
         List<Recipe> recipeList = Arrays.asList(recipe, recipe2);
-        when(recipeRepository.findByNameContaining("Очень", Constants.MAX_ITEMS_PER_PAGE, 0)).thenReturn(recipeList);
+        when(recipeRepository.searchByName("очень:*", Float.MAX_VALUE, "", 0, Constants.MAX_ITEMS_PER_PAGE,
+                                           0)).thenReturn(recipeList);
 
         this.mockMvc.perform(get(Constants.BASE_API_PATH + "/recipes/search/Очень")).andExpect(
                 status().isOk()).andExpect(content().contentType("application/json")).andExpect(
@@ -125,6 +141,105 @@ public class TestingWebApplicationTests {
         verify(recipeRepository, never()).delete(recipe);
     }
 
+    /**
+     * Stores the ten digits as the content of the media with id 1
+     *
+     * @return quoted ETag of the content
+     */
+    private String mockDigitsMedia() throws Exception {
+        byte[] digits = "0123456789".getBytes(StandardCharsets.UTF_8);
+        String hash = mediaStorage.put(new ByteArrayInputStream(digits)).hash();
+        MediaRepository.Metadata metadata = mock(MediaRepository.Metadata.class);
+        when(metadata.getContentHash()).thenReturn(hash);
+        when(metadata.getSize()).thenReturn((long) digits.length);
+        when(metadata.getCreatedAt()).thenReturn(Instant.parse("2023-07-01T10:00:00Z"));
+        when(metadata.getMimeType()).thenReturn("text/plain");
+        when(mediaRepository.findMetadataById(1L)).thenReturn(Optional.of(metadata));
+        return "\"" + hash + "\"";
+    }
+
+    @Test
+    public void getMediaRangeReturnsPartialContent() throws Exception {
+        mockDigitsMedia();
+        this.mockMvc.perform(get(Constants.BASE_API_PATH + "/media/1").header(HttpHeaders.RANGE, "bytes=2-4"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-4/10"))
+                .andExpect(content().string("234"));
+    }
+
+    @Test
+    public void getMediaRangesReturnsMultipartByteranges() throws Exception {
+        mockDigitsMedia();
+        this.mockMvc.perform(get(Constants.BASE_API_PATH + "/media/1").header(HttpHeaders.RANGE, "bytes=0-1,5-6"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, startsWith("multipart/byteranges")))
+                .andExpect(content().string(containsString("Content-Range: bytes 0-1/10")))
+                .andExpect(content().string(containsString("Content-Range: bytes 5-6/10")))
+                .andExpect(content().string(containsString("56")));
+    }
+
+    @Test
+    public void getMediaUnsatisfiableRangeReturnsRangeNotSatisfiable() throws Exception {
+        mockDigitsMedia();
+        this.mockMvc.perform(get(Constants.BASE_API_PATH + "/media/1").header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    public void getMediaIfRangeMismatchReturnsWholeContent() throws Exception {
+        String etag = mockDigitsMedia();
+        this.mockMvc.perform(get(Constants.BASE_API_PATH + "/media/1").header(HttpHeaders.RANGE, "bytes=2-4")
+                                     .header(HttpHeaders.IF_RANGE, "\"another\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().string("0123456789"));
+        this.mockMvc.perform(get(Constants.BASE_API_PATH + "/media/1").header(HttpHeaders.RANGE, "bytes=2-4")
+                                     .header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("234"));
+    }
+
+    private Authentication mockUploader() {
+        when(mediaTypeRepository.findByMimeType("video/mp4")).thenReturn(
+                Optional.of(new voicerecipeserver.model.entities.MediaType(1L, "video/mp4")));
+        Set<Role> roles = new HashSet<>();
+        roles.add(new Role("USER"));
+        return SecurityTestUtils.createAuthenticationWithRoles(roles, "user");
+    }
+
+    @Test
+    public void postMediaDeclaredTooLargeReturnsPayloadTooLarge() throws Exception {
+        Authentication auth = mockUploader();
+        // rejected by the declared length, before the body is read
+        this.mockMvc.perform(post(Constants.BASE_API_PATH + "/media").contentType("video/mp4")
+                                     .header(HttpHeaders.CONTENT_LENGTH, 1025).with(authentication(auth)))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.code", is(413)));
+        verify(mediaRepository, never()).save(any());
+    }
+
+    @Test
+    public void postMediaChunkedTooLargeReturnsPayloadTooLarge() throws Exception {
+        Authentication auth = mockUploader();
+        // no Content-Length, the body is cut off while it is read
+        this.mockMvc.perform(post(Constants.BASE_API_PATH + "/media").contentType("video/mp4")
+                                     .content(new byte[1025]).with(authentication(auth)))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.code", is(413)));
+        verify(mediaRepository, never()).save(any());
+    }
+
+    @Test
+    public void postMediaEmptyReturnsBadRequest() throws Exception {
+        Authentication auth = mockUploader();
+        this.mockMvc.perform(post(Constants.BASE_API_PATH + "/media").contentType("video/mp4")
+                                     .content(new byte[0]).with(authentication(auth)))
+                .andExpect(status().isBadRequest());
+        verify(mediaRepository, never()).save(any());
+    }
+
     private String asJsonString(Object obj) throws JsonProcessingException {
         ObjectMapper objectMapper = new ObjectMapper();
         return objectMapper.writeValueAsString(obj);
@@ -0,0 +1,68 @@
+package voicerecipeserver.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinHashIndexTest {
+
+    @Test
+    void finds_recipes_with_shared_ingredients_ordered_by_similarity() {
+        MinHashIndex index = new MinHashIndex(20, 3);
+        index.put(1, new long[]{1, 2, 3, 4, 5, 6});
+        index.put(2, new long[]{1, 2, 3, 4, 5, 6});
+        index.put(3, new long[]{1, 2, 3, 4, 5, 7});
+        index.put(4, new long[]{10, 11, 12, 13, 14, 15});
+
+        assertArrayEquals(new long[]{2, 3}, index.findSimilar(1, 10));
+        assertArrayEquals(new long[]{2}, index.findSimilar(1, 1));
+        assertArrayEquals(new long[0], index.findSimilar(4, 10));
+        assertArrayEquals(new long[0], index.findSimilar(5, 10));
+    }
+
+    @Test
+    void put_replaces_and_remove_drops_ingredients() {
+        MinHashIndex index = new MinHashIndex(20, 3);
+        index.put(1, new long[]{1, 2, 3, 4});
+        index.put(2, new long[]{1, 2, 3, 4});
+
+        index.put(2, new long[]{5, 6, 7, 8});
+        assertArrayEquals(new long[0], index.findSimilar(1, 10));
+
+        index.put(3, new long[]{4, 3, 2, 1, 1});
+        index.remove(1);
+        assertArrayEquals(new long[0], index.findSimilar(3, 10));
+        assertEquals(2, index.size());
+
+        index.put(4, new long[0]);
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void lookup_in_popular_bucket_scores_limited_candidates() {
+        MinHashIndex index = new MinHashIndex(20, 3);
+        for (long recipeId = 1; recipeId <= 10_000; ++recipeId) {
+            index.put(recipeId, new long[]{1, 2, 3, 4});
+        }
+        index.put(10_001, new long[]{1, 2, 3, 5});
+
+        long[] similar = index.findSimilar(1, 5);
+        assertEquals(5, similar.length);
+        for (long recipeId : similar) {
+            assertTrue(recipeId <= 10_000 && recipeId != 1);
+        }
+        assertArrayEquals(new long[0], index.findSimilar(1, 0));
+
+        for (long recipeId = 2; recipeId <= 10_000; ++recipeId) {
+            index.remove(recipeId);
+        }
+        assertArrayEquals(new long[]{10_001}, index.findSimilar(1, 5));
+    }
+
+    @Test
+    void jaccard_of_sorted_sets() {
+        assertEquals(1.0, MinHashIndex.jaccard(new long[]{1, 2}, new long[]{1, 2}));
+        assertEquals(0.0, MinHashIndex.jaccard(new long[]{1, 2}, new long[]{3}));
+        assertEquals(0.5, MinHashIndex.jaccard(new long[]{1, 2, 3}, new long[]{2, 3, 4}));
+    }
+}
@@ -0,0 +1,174 @@
+package voicerecipeserver.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlopeOneModelBuilderTest {
+
+    private static SlopeOneModelBuilder generate(long seed, int users, int recipes, int marksPerUser,
+                                                 SlopeOneModel incremental) {
+        return generate(seed, users, recipes, marksPerUser, incremental, new SlopeOneModelBuilder());
+    }
+
+    private static SlopeOneModelBuilder generate(long seed, int users, int recipes, int marksPerUser,
+                                                 SlopeOneModel incremental, SlopeOneModelBuilder builder) {
+        Random random = new Random(seed);
+        for (long userId = 1; userId <= users; ++userId) {
+            for (int i = 0; i < marksPerUser; ++i) {
+                long recipeId = 1 + random.nextInt(recipes);
+                float mark = 1 + random.nextInt(5);
+                builder.addMark(userId, recipeId, mark);
+                incremental.setMark(userId, recipeId, mark);
+            }
+        }
+        return builder;
+    }
+
+    private static void assertSameModel(SlopeOneModel expected, SlopeOneModel actual) {
+        assertSameMatrix(expected, expected.getMatrix(), actual, actual.getMatrix());
+        if (expected.getVariant() == SlopeOneVariant.BI_POLAR) {
+            assertSameMatrix(expected, expected.getDislikeMatrix(), actual, actual.getDislikeMatrix());
+        }
+    }
+
+    private static void assertSameMatrix(SlopeOneModel expected, ItemMatrix expectedMatrix, SlopeOneModel actual,
+                                         ItemMatrix actualMatrix) {
+        RecipeIndex expectedIndex = expected.getRecipeIndex();
+        RecipeIndex actualIndex = actual.getRecipeIndex();
+        assertEquals(expectedIndex.size(), actualIndex.size());
+        for (int row = 0; row < expectedIndex.size(); ++row) {
+            int actualRow = actualIndex.indexOf(expectedIndex.idOf(row));
+            for (int col = 0; col < expectedIndex.size(); ++col) {
+                int actualCol = actualIndex.indexOf(expectedIndex.idOf(col));
+                assertEquals(expectedMatrix.count(row, col), actualMatrix.count(actualRow, actualCol));
+                assertEquals(expectedMatrix.diffSum(row, col), actualMatrix.diffSum(actualRow, actualCol));
+            }
+        }
+    }
+
+    @Test
+    void sequential_build_equals_incremental_model() {
+        SlopeOneModel incremental = new SlopeOneModel();
+        SlopeOneModel built = generate(42, 200, 150, 20, incremental).build();
+
+        assertSameModel(incremental, built);
+        for (long userId = 1; userId <= 200; ++userId) {
+            assertArrayEquals(incremental.recommend(incremental.getUserMarks(userId), 10),
+                              built.recommend(built.getUserMarks(userId), 10));
+        }
+    }
+
+    @Test
+    void parallel_build_equals_sequential_build_for_dense_matrix() {
+        SlopeOneModelBuilder builder = generate(7, 300, 500, 30, new SlopeOneModel());
+        SlopeOneModel sequential = builder.build();
+        SlopeOneModel parallel = builder.build(new ForkJoinPool(4));
+
+        assertInstanceOf(DenseItemMatrix.class, parallel.getMatrix());
+        assertSameModel(sequential, parallel);
+        assertEquals(4, builder.getStats().parallelism());
+    }
+
+    @Test
+    void parallel_build_equals_sequential_build_for_sparse_matrix() {
+        SlopeOneModelBuilder builder = generate(13, 300, 1500, 30, new SlopeOneModel());
+        SlopeOneModel sequential = builder.build();
+        SlopeOneModel parallel = builder.build(new ForkJoinPool(4));
+
+        assertInstanceOf(SparseItemMatrix.class, parallel.getMatrix());
+        assertSameModel(sequential, parallel);
+        for (long userId = 1; userId <= 300; ++userId) {
+            assertArrayEquals(sequential.recommend(sequential.getUserMarks(userId), 10),
+                              parallel.recommend(parallel.getUserMarks(userId), 10));
+        }
+    }
+
+    @Test
+    void bi_polar_build_equals_incremental_model() {
+        SlopeOneModel incremental = new SlopeOneModel(SlopeOneVariant.BI_POLAR, 0);
+        SlopeOneModelBuilder builder = generate(3, 200, 150, 20, incremental,
+                                                new SlopeOneModelBuilder(SlopeOneVariant.BI_POLAR, 0));
+        SlopeOneModel built = builder.build(new ForkJoinPool(4));
+
+        assertSameModel(incremental, built);
+        for (long userId = 1; userId <= 200; ++userId) {
+            assertArrayEquals(incremental.recommend(incremental.getUserMarks(userId), 10),
+                              built.recommend(built.getUserMarks(userId), 10));
+        }
+    }
+
+    @Test
+    void neighbors_limit_bounds_row_size() {
+        int neighbors = 5;
+        SlopeOneModelBuilder builder = generate(11, 300, 200, 30, new SlopeOneModel(),
+                                                new SlopeOneModelBuilder(SlopeOneVariant.WEIGHTED, neighbors));
+        SlopeOneModel built = builder.build();
+        assertRowsBounded(built, neighbors);
+
+        for (long recipeId = 1; recipeId <= 200; ++recipeId) {
+            built.setMark(1, recipeId, 1 + recipeId % 5);
+        }
+        assertRowsBounded(built, neighbors);
+    }
+
+    private static void assertRowsBounded(SlopeOneModel model, int neighbors) {
+        for (int row = 0; row < model.getRecipeIndex().size(); ++row) {
+            int[] size = new int[1];
+            model.getMatrix().forEachInRow(row, (col, diffSum, count) -> ++size[0]);
+            assertTrue(size[0] <= neighbors);
+        }
+    }
+
+    @Test
+    void pruned_cells_are_not_restored_by_later_marks() {
+        // recipes 10, 20 and 30 get indexes 0, 1 and 2, a tie is won by the lower index
+        SlopeOneModelBuilder builder = new SlopeOneModelBuilder(SlopeOneVariant.WEIGHTED, 1);
+        builder.addMark(1, 10, 5);
+        builder.addMark(1, 20, 3);
+        builder.addMark(1, 30, 1);
+        builder.addMark(2, 10, 4);
+        builder.addMark(2, 20, 2);
+        builder.addMark(4, 10, 3);
+        builder.addMark(4, 30, 3);
+        SlopeOneModel model = builder.build();
+        // the row of 10 keeps 20 and drops 30, then loses 20, which leaves room for a cell
+        model.removeMark(1, 20);
+        model.removeMark(2, 20);
+        model.setMark(3, 10, 2);
+        model.setMark(3, 30, 4);
+        model.setMark(5, 10, 1);
+        model.setMark(5, 30, 5);
+        model.removeMark(1, 30);
+
+        SlopeOneModelBuilder fresh = new SlopeOneModelBuilder(SlopeOneVariant.WEIGHTED, 0);
+        fresh.addMark(1, 10, 5);
+        fresh.addMark(2, 10, 4);
+        fresh.addMark(3, 10, 2);
+        fresh.addMark(3, 30, 4);
+        fresh.addMark(4, 10, 3);
+        fresh.addMark(4, 30, 3);
+        fresh.addMark(5, 10, 1);
+        fresh.addMark(5, 30, 5);
+        SlopeOneModel expected = fresh.build();
+
+        RecipeIndex index = model.getRecipeIndex();
+        RecipeIndex expectedIndex = expected.getRecipeIndex();
+        int row = index.indexOf(10);
+        assertEquals(0, model.getMatrix().count(row, index.indexOf(30)));
+        assertArrayEquals(new int[]{index.indexOf(30)}, model.getMatrix().getPruned(row));
+        // every kept cell holds exactly the differences of the current marks
+        for (int r = 0; r < index.size(); ++r) {
+            int expectedRow = expectedIndex.indexOf(index.idOf(r));
+            model.getMatrix().forEachInRow(r, (col, diffSum, count) -> {
+                int expectedCol = expectedIndex.indexOf(index.idOf(col));
+                assertEquals(expected.getMatrix().count(expectedRow, expectedCol), count);
+                assertEquals(expected.getMatrix().diffSum(expectedRow, expectedCol), diffSum);
+            });
+        }
+        assertEquals(3, model.getMatrix().count(index.indexOf(30), row));
+    }
+}
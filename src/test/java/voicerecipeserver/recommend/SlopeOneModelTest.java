@@ -0,0 +1,46 @@
+package voicerecipeserver.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlopeOneModelTest {
+
+    private static SlopeOneModel model() {
+        SlopeOneModel model = new SlopeOneModel();
+        model.setMark(1, 10, 5);
+        model.setMark(1, 20, 3);
+        model.setMark(1, 30, 1);
+        model.setMark(2, 10, 4);
+        model.setMark(2, 20, 2);
+        model.setMark(3, 40, 2);
+        return model;
+    }
+
+    @Test
+    void recommendations_exclude_rated_recipes() {
+        SlopeOneModel model = model();
+
+        assertArrayEquals(new long[]{30, 40}, model.recommend(model.getUserMarks(2), 10));
+        assertArrayEquals(new long[]{40}, model.recommend(model.getUserMarks(1), 10));
+        assertArrayEquals(new long[0], model.recommend(model.getUserMarks(4), 10));
+    }
+
+    @Test
+    void recommendations_are_filtered_by_category() {
+        SlopeOneModel model = model();
+        model.addRecipeToCategory(30, 1);
+        model.addRecipeToCategory(40, 2);
+        model.addRecipeToCategory(50, 2);
+
+        assertArrayEquals(new long[]{30}, model.recommend(model.getUserMarks(2), 10, 1L));
+        assertArrayEquals(new long[]{40}, model.recommend(model.getUserMarks(2), 10, 2L));
+        assertArrayEquals(new long[0], model.recommend(model.getUserMarks(2), 10, 3L));
+
+        model.removeRecipeFromCategory(40, 2);
+        assertArrayEquals(new long[0], model.recommend(model.getUserMarks(2), 10, 2L));
+
+        model.setMark(3, 50, 4);
+        assertArrayEquals(new long[]{50}, model.recommend(model.getUserMarks(2), 10, 2L));
+    }
+}
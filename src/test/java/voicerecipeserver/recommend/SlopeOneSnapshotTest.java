@@ -0,0 +1,72 @@
+package voicerecipeserver.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlopeOneSnapshotTest {
+
+    private static SlopeOneModel generate(SlopeOneVariant variant, int neighbors) {
+        Random random = new Random(5);
+        SlopeOneModelBuilder builder = new SlopeOneModelBuilder(variant, neighbors);
+        for (long userId = 1; userId <= 100; ++userId) {
+            for (int i = 0; i < 15; ++i) {
+                builder.addMark(userId, 1 + random.nextInt(80), 1 + random.nextInt(5));
+            }
+        }
+        return builder.build();
+    }
+
+    private static void assertSnapshotRestoresModel(SlopeOneModel model) throws IOException {
+        Path path = Files.createTempFile("slope-one", ".snapshot");
+        try {
+            SlopeOneSnapshot.write(model, 42, path);
+            SlopeOneSnapshot snapshot = SlopeOneSnapshot.read(path);
+            SlopeOneModel restored = snapshot.getModel();
+
+            assertEquals(42, snapshot.getHighWaterMark());
+            assertEquals(model.getVariant(), restored.getVariant());
+            assertEquals(model.getUsersCount(), restored.getUsersCount());
+            for (long userId = 1; userId <= 100; ++userId) {
+                assertArrayEquals(model.recommend(model.getUserMarks(userId), 20),
+                                  restored.recommend(restored.getUserMarks(userId), 20));
+            }
+            for (int row = 0; row < model.getRecipeIndex().size(); ++row) {
+                assertArrayEquals(model.getMatrix().getPruned(row), restored.getMatrix().getPruned(row));
+            }
+
+            model.setMark(1, 1000, 5);
+            restored.setMark(1, 1000, 5);
+            assertArrayEquals(model.recommend(model.getUserMarks(1), 20),
+                              restored.recommend(restored.getUserMarks(1), 20));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void snapshot_restores_weighted_model() throws IOException {
+        assertSnapshotRestoresModel(generate(SlopeOneVariant.WEIGHTED, 0));
+    }
+
+    @Test
+    void snapshot_restores_bi_polar_model_with_neighbors_limit() throws IOException {
+        assertSnapshotRestoresModel(generate(SlopeOneVariant.BI_POLAR, 10));
+    }
+
+    @Test
+    void reading_not_a_snapshot_fails() throws IOException {
+        Path path = Files.createTempFile("slope-one", ".snapshot");
+        try {
+            Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+            assertThrows(IOException.class, () -> SlopeOneSnapshot.read(path));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package voicerecipeserver.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutocompleteIndexTest {
+
+    @Test
+    void ranks_name_prefix_then_word_prefix_then_infix() {
+        AutocompleteIndex index = new AutocompleteIndex();
+        index.put(1, "Тыквенный суп");
+        index.put(2, "Суп с фрикадельками");
+        index.put(3, "Суп");
+        index.put(4, "Грибной суп-пюре");
+        index.put(5, "Блины");
+        index.put(6, "Капуста тушеная");
+
+        assertArrayEquals(new long[]{3, 2, 1, 4}, index.suggest("суп", 10));
+        assertArrayEquals(new long[]{3, 2}, index.suggest("СУП", 2));
+        assertArrayEquals(new long[]{6}, index.suggest("пуст", 10));
+        assertArrayEquals(new long[]{4}, index.suggest("грибной су", 10));
+        assertArrayEquals(new long[0], index.suggest("пицца", 10));
+        assertArrayEquals(new long[0], index.suggest("  ", 10));
+        assertEquals("Суп с фрикадельками", index.nameOf(2));
+    }
+
+    @Test
+    void put_replaces_and_remove_drops_name() {
+        AutocompleteIndex index = new AutocompleteIndex();
+        index.put(1, "Борщ");
+        index.put(1, "Окрошка");
+        assertArrayEquals(new long[0], index.suggest("бор", 10));
+        assertArrayEquals(new long[]{1}, index.suggest("окр", 10));
+        assertArrayEquals(new long[]{1}, index.suggest("рошк", 10));
+
+        index.remove(1);
+        assertArrayEquals(new long[0], index.suggest("окр", 10));
+        assertArrayEquals(new long[0], index.suggest("рошк", 10));
+        assertNull(index.nameOf(1));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void normalizes_case_punctuation_and_yo() {
+        assertEquals("ежик в тумане", AutocompleteIndex.normalize("  Ёжик, в  тумане!"));
+        assertEquals("", AutocompleteIndex.normalize(null));
+
+        AutocompleteIndex index = new AutocompleteIndex();
+        index.put(1, "Тушёная капуста");
+        assertArrayEquals(new long[]{1}, index.suggest("тушен", 10));
+    }
+}
@@ -0,0 +1,57 @@
+package voicerecipeserver.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FuzzyNameIndexTest {
+
+    @Test
+    void finds_words_within_allowed_distance() {
+        FuzzyNameIndex index = new FuzzyNameIndex();
+        index.put(1, "Борщ украинский");
+        index.put(2, "Солянка");
+        index.put(3, "Окрошка на квасе");
+        index.put(4, "Щи");
+
+        assertEquals(Map.of("борщ", 1), index.findWords("борш"));
+        // a swap of adjacent letters is one edit
+        assertEquals(Map.of("солянка", 1), index.findWords("соялнка"));
+        assertEquals(Map.of("окрошка", 2), index.findWords("акрошко"));
+        assertEquals(Map.of("щи", 0), index.findWords("щи"));
+        // no typos are allowed in two letter words
+        assertEquals(Map.of(), index.findWords("ши"));
+    }
+
+    @Test
+    void ranks_by_distance_then_popularity() {
+        FuzzyNameIndex index = new FuzzyNameIndex();
+        index.put(1, "Салат оливье");
+        index.put(2, "Салат цезарь");
+        index.put(3, "Салат с цезарем");
+        index.put(4, "Сало");
+        index.setPopularity(2, 10);
+        index.setPopularity(3, 50);
+
+        // every query word must match
+        assertArrayEquals(new long[]{2}, index.search("салат цизарь", 10));
+        assertArrayEquals(new long[]{3, 2, 1}, index.search("салад", 10));
+        assertArrayEquals(new long[]{3, 2}, index.search("салад", 2));
+        assertArrayEquals(new long[0], index.search("салат борщ", 10));
+    }
+
+    @Test
+    void put_replaces_and_remove_drops_names() {
+        FuzzyNameIndex index = new FuzzyNameIndex();
+        index.put(1, "Пельмени");
+        index.put(1, "Вареники");
+        assertArrayEquals(new long[0], index.search("пельмени", 10));
+        assertArrayEquals(new long[]{1}, index.search("вареники", 10));
+
+        index.remove(1);
+        assertArrayEquals(new long[0], index.search("вареники", 10));
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,60 @@
+package voicerecipeserver.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IngredientIndexTest {
+
+    @Test
+    void ranks_by_missing_then_matched_ingredients() {
+        IngredientIndex index = new IngredientIndex();
+        index.put(1, new long[]{1, 2, 3, 4, 5});
+        index.put(2, new long[]{1, 2});
+        index.put(3, new long[]{1, 2, 3});
+        index.put(4, new long[]{1, 6});
+        index.put(5, new long[]{7, 8});
+
+        // 2 and 3 can be cooked, 3 uses more of the ingredients, 4 misses one, 1 misses two
+        assertArrayEquals(new long[]{3, 2, 4, 1}, index.search(new long[]{1, 2, 3, 9}, false, 10));
+        assertArrayEquals(new long[]{3, 2}, index.search(new long[]{1, 2, 3}, false, 2));
+        assertArrayEquals(new long[]{3, 1}, index.search(new long[]{3, 1}, true, 10));
+        assertArrayEquals(new long[0], index.search(new long[]{1, 9}, true, 10));
+        assertArrayEquals(new long[0], index.search(new long[]{9}, false, 10));
+    }
+
+    @Test
+    void put_replaces_and_remove_drops_ingredients() {
+        IngredientIndex index = new IngredientIndex();
+        index.put(1, new long[]{1, 2});
+        index.put(1, new long[]{3});
+        assertArrayEquals(new long[0], index.search(new long[]{1}, false, 10));
+        assertArrayEquals(new long[]{1}, index.search(new long[]{3}, true, 10));
+
+        index.remove(1);
+        assertArrayEquals(new long[0], index.search(new long[]{3}, false, 10));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void intersection_with_skips_matches_brute_force() {
+        Random random = new Random(7);
+        IngredientIndex index = new IngredientIndex();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (long recipe = 1; recipe <= 5000; ++recipe) {
+            boolean common = random.nextInt(4) == 0;
+            boolean rare = random.nextInt(50) == 0;
+            index.put(recipe, common && rare ? new long[]{1, 2, 3} : common ? new long[]{1, 3} : rare ?
+                    new long[]{2, 3} : new long[]{3});
+            if (common && rare) {
+                expected.add(recipe);
+            }
+        }
+        long[] found = index.search(new long[]{1, 2}, true, 5000);
+        // every found recipe misses ingredient 3, so the ties are ordered by id
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), found);
+    }
+}
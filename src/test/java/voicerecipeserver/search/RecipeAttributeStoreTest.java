@@ -0,0 +1,88 @@
+package voicerecipeserver.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecipeAttributeStoreTest {
+
+    private static RecipeAttributeStore store() {
+        RecipeAttributeStore store = new RecipeAttributeStore();
+        // id, cook time, kilocalories
+        float[][] recipes = {{1, 10, 150}, {2, 20, 250}, {3, 45, 350}, {4, 90, Float.NaN}, {5, 25, 700}};
+        for (float[] recipe : recipes) {
+            store.set((long) recipe[0], RecipeFacet.COOK_TIME_MINS, recipe[1]);
+            store.set((long) recipe[0], RecipeFacet.KILOCALORIES, recipe[2]);
+        }
+        store.addToCategory(1, 100);
+        store.addToCategory(2, 100);
+        store.addToCategory(5, 200);
+        return store;
+    }
+
+    @Test
+    void filters_newest_first_with_disjunctive_counts() {
+        RecipeAttributeStore.FilterResult result = store().filter(
+                new RecipeFilter().range(RecipeFacet.COOK_TIME_MINS, null, 30), Long.MAX_VALUE, 0, 10);
+
+        assertArrayEquals(new long[]{5, 2, 1}, result.ids());
+        assertEquals(3, result.total());
+        // the cook time buckets count every recipe, the other ones only the matching
+        assertArrayEquals(new int[]{1, 2, 1, 1, 0}, result.getCounts(RecipeFacet.COOK_TIME_MINS));
+        assertArrayEquals(new int[]{1, 1, 0, 1, 0}, result.getCounts(RecipeFacet.KILOCALORIES));
+        assertEquals(Map.of(100L, 2, 200L, 1), result.categoryCounts());
+    }
+
+    @Test
+    void unknown_values_do_not_match_restricted_facets() {
+        RecipeAttributeStore.FilterResult result = store().filter(
+                new RecipeFilter().range(RecipeFacet.KILOCALORIES, 0, null), Long.MAX_VALUE, 0, 10);
+
+        assertArrayEquals(new long[]{5, 3, 2, 1}, result.ids());
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0}, result.getCounts(RecipeFacet.AVG_MARK));
+    }
+
+    @Test
+    void category_filter_keeps_category_counts_of_other_categories() {
+        RecipeAttributeStore.FilterResult result = store().filter(
+                new RecipeFilter().category(100L), Long.MAX_VALUE, 0, 10);
+
+        assertArrayEquals(new long[]{2, 1}, result.ids());
+        assertArrayEquals(new int[]{1, 1, 0, 0, 0}, result.getCounts(RecipeFacet.COOK_TIME_MINS));
+        assertEquals(Map.of(100L, 2, 200L, 1), result.categoryCounts());
+    }
+
+    @Test
+    void pages_by_cursor_and_offset() {
+        RecipeAttributeStore store = store();
+        RecipeFilter filter = new RecipeFilter();
+
+        assertArrayEquals(new long[]{5, 4}, store.filter(filter, Long.MAX_VALUE, 0, 2).ids());
+        assertArrayEquals(new long[]{3, 2}, store.filter(filter, Long.MAX_VALUE, 2, 2).ids());
+        assertArrayEquals(new long[]{3, 2}, store.filter(filter, 4, 0, 2).ids());
+        assertEquals(5, store.filter(filter, 4, 0, 2).total());
+
+        store.remove(4);
+        store.removeFromCategory(5, 200);
+        RecipeAttributeStore.FilterResult result = store.filter(filter, Long.MAX_VALUE, 0, 10);
+        assertArrayEquals(new long[]{5, 3, 2, 1}, result.ids());
+        assertEquals(Map.of(100L, 2), result.categoryCounts());
+        assertFalse(store.contains(4));
+    }
+
+    @Test
+    void columns_grow_with_new_recipes() {
+        RecipeAttributeStore store = new RecipeAttributeStore();
+        for (long id = 1; id <= 1000; ++id) {
+            store.set(id, RecipeFacet.SERVINGS, id % 2 == 0 ? 2 : 4);
+        }
+
+        RecipeAttributeStore.FilterResult result = store.filter(
+                new RecipeFilter().range(RecipeFacet.SERVINGS, null, 2), Long.MAX_VALUE, 0, 2);
+        assertEquals(1000, store.size());
+        assertEquals(500, result.total());
+        assertArrayEquals(new long[]{1000, 998}, result.ids());
+    }
+}
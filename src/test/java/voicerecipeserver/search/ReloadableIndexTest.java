@@ -0,0 +1,44 @@
+package voicerecipeserver.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReloadableIndexTest {
+
+    @Test
+    void updates_made_during_reload_are_replayed() {
+        ReloadableIndex<Map<Long, String>> index = new ReloadableIndex<>(new HashMap<>(Map.of(1L, "Борщ", 2L, "Щи")));
+
+        index.reload(() -> {
+            // the read has already seen both recipes when they change
+            Map<Long, String> loaded = new HashMap<>(Map.of(1L, "Борщ", 2L, "Щи"));
+            index.update(names -> names.remove(1L));
+            index.update(names -> names.put(2L, "Кислые щи"));
+            index.update(names -> names.put(3L, "Солянка"));
+            return loaded;
+        });
+
+        assertEquals(Map.of(2L, "Кислые щи", 3L, "Солянка"), index.read(HashMap::new));
+
+        index.reload(() -> new HashMap<>(Map.of(4L, "Окрошка")));
+        assertEquals(Map.of(4L, "Окрошка"), index.read(HashMap::new));
+    }
+
+    @Test
+    void failed_reload_keeps_current_index() {
+        ReloadableIndex<Map<Long, String>> index = new ReloadableIndex<>(new HashMap<>(Map.of(1L, "Борщ")));
+
+        assertThrows(IllegalStateException.class, () -> index.reload(() -> {
+            throw new IllegalStateException();
+        }));
+        index.update(names -> names.put(2L, "Щи"));
+
+        assertEquals(Map.of(1L, "Борщ", 2L, "Щи"), index.read(HashMap::new));
+        index.reload(() -> new HashMap<>(Map.of(3L, "Солянка")));
+        assertEquals(Map.of(3L, "Солянка"), index.read(HashMap::new));
+    }
+}
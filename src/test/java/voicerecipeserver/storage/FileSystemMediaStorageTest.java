@@ -0,0 +1,121 @@
+package voicerecipeserver.storage;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import voicerecipeserver.model.exceptions.MediaStorageException;
+import voicerecipeserver.model.exceptions.MediaTooLargeException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileSystemMediaStorageTest {
+
+    @Test
+    void content_is_addressed_by_sha256() throws IOException {
+        Path root = Files.createTempDirectory("media");
+        FileSystemMediaStorage storage = new FileSystemMediaStorage(root);
+        byte[] data = "abc".getBytes(StandardCharsets.UTF_8);
+
+        MediaStorage.StoredContent stored = storage.put(new ByteArrayInputStream(data));
+
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", stored.hash());
+        assertEquals(3, stored.size());
+        assertEquals(root.toAbsolutePath().resolve("ba/78/" + stored.hash()), storage.pathOf(stored.hash()));
+        try (InputStream content = storage.open(stored.hash())) {
+            assertArrayEquals(data, content.readAllBytes());
+        }
+    }
+
+    @Test
+    void equal_contents_are_stored_once() throws IOException {
+        Path root = Files.createTempDirectory("media");
+        FileSystemMediaStorage storage = new FileSystemMediaStorage(root);
+        byte[] data = new byte[100_000];
+        data[99_999] = 1;
+
+        MediaStorage.StoredContent first = storage.put(new ByteArrayInputStream(data));
+        MediaStorage.StoredContent second = storage.put(new ByteArrayInputStream(data));
+
+        assertEquals(first, second);
+        assertTrue(storage.exists(first.hash()));
+        try (var files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void resource_reads_content_from_any_position() throws IOException {
+        FileSystemMediaStorage storage = new FileSystemMediaStorage(Files.createTempDirectory("media"));
+        byte[] data = "0123456789".getBytes(StandardCharsets.UTF_8);
+        String hash = storage.put(new ByteArrayInputStream(data)).hash();
+
+        Resource resource = storage.getResource(hash);
+
+        assertEquals(10, resource.contentLength());
+        try (InputStream content = resource.getInputStream()) {
+            assertEquals(7, content.skip(7));
+            assertArrayEquals("789".getBytes(StandardCharsets.UTF_8), content.readAllBytes());
+        }
+    }
+
+    @Test
+    void missing_and_malformed_hashes_are_rejected() throws IOException {
+        FileSystemMediaStorage storage = new FileSystemMediaStorage(Files.createTempDirectory("media"));
+        String missing = "0".repeat(64);
+
+        assertFalse(storage.exists(missing));
+        assertInstanceOf(NoSuchFileException.class,
+                         assertThrows(MediaStorageException.class, () -> storage.open(missing)).getCause());
+        assertInstanceOf(NoSuchFileException.class,
+                         assertThrows(MediaStorageException.class, () -> storage.getResource(missing)).getCause());
+        assertThrows(IllegalArgumentException.class, () -> storage.open("../../etc/passwd"));
+    }
+
+    @Test
+    void upload_over_limit_is_cut_off_and_not_stored() throws IOException {
+        Path root = Files.createTempDirectory("media");
+        FileSystemMediaStorage storage = new FileSystemMediaStorage(root);
+        byte[] data = new byte[100_000];
+
+        assertEquals(100_000, storage.put(new LimitedInputStream(new ByteArrayInputStream(data), 100_000)).size());
+        ByteArrayInputStream tooLarge = new ByteArrayInputStream(new byte[100_001]);
+        assertThrows(MediaTooLargeException.class, () -> storage.put(new LimitedInputStream(tooLarge, 99_999)));
+        // a failed read is not a failure of the storage, the temporary file is removed, only the first content is
+        // stored
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void only_contents_stored_before_are_listed_and_deleted() throws IOException {
+        FileSystemMediaStorage storage = new FileSystemMediaStorage(Files.createTempDirectory("media"));
+        String old = storage.put(new ByteArrayInputStream(new byte[]{1})).hash();
+        String renewed = storage.put(new ByteArrayInputStream(new byte[]{2})).hash();
+        Instant past = Instant.now().minusSeconds(3600);
+        Files.setLastModifiedTime(storage.pathOf(old), FileTime.from(past));
+        Files.setLastModifiedTime(storage.pathOf(renewed), FileTime.from(past));
+        // stored again, as by a new upload of the same content
+        storage.put(new ByteArrayInputStream(new byte[]{2}));
+        Instant before = Instant.now().minusSeconds(60);
+
+        try (Stream<String> stored = storage.findStoredBefore(before)) {
+            assertEquals(List.of(old), stored.toList());
+        }
+        assertFalse(storage.deleteIfStoredBefore(renewed, before));
+        assertTrue(storage.deleteIfStoredBefore(old, before));
+        assertFalse(storage.exists(old));
+        assertTrue(storage.exists(renewed));
+    }
+}
@@ -0,0 +1,114 @@
+package voicerecipeserver.storage;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageResizerTest {
+    private final ImageResizer resizer = new ImageResizer(50_000_000, 0.85f);
+
+    private static byte[] image(int width, int height, int type, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillOval(0, 0, width, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage decode(byte[] data) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(data));
+    }
+
+    @Test
+    void jpeg_is_fitted_into_every_variant() throws IOException {
+        byte[] original = image(2000, 1000, BufferedImage.TYPE_INT_RGB, "jpeg");
+
+        Map<ImageVariant, byte[]> variants = resizer.resize(new ByteArrayInputStream(original), "jpeg");
+
+        assertEquals(3, variants.size());
+        BufferedImage small = decode(variants.get(ImageVariant.SMALL));
+        assertEquals(160, small.getWidth());
+        assertEquals(80, small.getHeight());
+        assertEquals(480, decode(variants.get(ImageVariant.MEDIUM)).getWidth());
+        assertEquals(540, decode(variants.get(ImageVariant.LARGE)).getHeight());
+        assertTrue(variants.get(ImageVariant.SMALL).length < original.length);
+    }
+
+    @Test
+    void png_keeps_alpha_and_small_image_is_not_upscaled() throws IOException {
+        byte[] original = image(300, 600, BufferedImage.TYPE_INT_ARGB, "png");
+
+        Map<ImageVariant, byte[]> variants = resizer.resize(new ByteArrayInputStream(original), "png");
+
+        assertEquals(2, variants.size());
+        assertFalse(variants.containsKey(ImageVariant.LARGE));
+        assertEquals(240, decode(variants.get(ImageVariant.MEDIUM)).getWidth());
+        BufferedImage small = decode(variants.get(ImageVariant.SMALL));
+        assertEquals(80, small.getWidth());
+        assertEquals(160, small.getHeight());
+        assertTrue(small.getColorModel().hasAlpha());
+        // a corner outside of the oval stays transparent
+        assertEquals(0, small.getRGB(0, 0) >>> 24);
+    }
+
+    @Test
+    void undecodable_and_too_large_images_are_skipped() throws IOException {
+        assertNull(resizer.resize(new ByteArrayInputStream(new byte[]{1, 2, 3}), "png"));
+        ImageResizer strict = new ImageResizer(1000, 0.85f);
+        assertNull(strict.resize(new ByteArrayInputStream(image(100, 100, BufferedImage.TYPE_INT_RGB, "png")), "png"));
+    }
+
+    /**
+     * @return the JPEG with an Exif segment holding the orientation tag, written after the JFIF segment
+     */
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        // Exif header, big endian TIFF header, IFD with one SHORT entry and no next IFD
+        ByteBuffer exif = ByteBuffer.allocate(6 + 8 + 2 + 12 + 4);
+        exif.put("Exif\0\0".getBytes()).put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+        exif.putShort((short) 1).putShort((short) 0x0112).putShort((short) 3).putInt(1)
+                .putShort((short) orientation).putShort((short) 0).putInt(0);
+        int app0End = 4 + ((jpeg[4] & 0xff) << 8 | (jpeg[5] & 0xff));
+        ByteBuffer result = ByteBuffer.allocate(jpeg.length + 4 + exif.capacity());
+        result.put(jpeg, 0, app0End).put((byte) 0xff).put((byte) 0xe1).putShort((short) (exif.capacity() + 2))
+                .put(exif.array()).put(jpeg, app0End, jpeg.length - app0End);
+        return result.array();
+    }
+
+    @Test
+    void exif_orientation_is_applied() throws IOException {
+        // a portrait photo stored sideways: its top is on the left
+        BufferedImage stored = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = stored.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 1000, 1000);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(1000, 0, 1000, 1000);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(stored, "jpeg", out);
+        byte[] original = withExifOrientation(out.toByteArray(), 6);
+
+        Map<ImageVariant, byte[]> variants = resizer.resize(new ByteArrayInputStream(original), "jpeg");
+
+        BufferedImage small = decode(variants.get(ImageVariant.SMALL));
+        assertEquals(80, small.getWidth());
+        assertEquals(160, small.getHeight());
+        Color top = new Color(small.getRGB(40, 20));
+        Color bottom = new Color(small.getRGB(40, 140));
+        assertTrue(top.getRed() > 200 && top.getBlue() < 50);
+        assertTrue(bottom.getBlue() > 200 && bottom.getRed() < 50);
+        assertEquals(1080, decode(variants.get(ImageVariant.LARGE)).getHeight());
+    }
+}
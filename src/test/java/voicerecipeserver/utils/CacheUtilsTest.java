@@ -0,0 +1,32 @@
+package voicerecipeserver.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheUtilsTest {
+    private static final String ETAG = "\"ba7816bf\"";
+    private static final Instant LAST_MODIFIED = Instant.parse("2023-11-02T10:21:44.318Z");
+
+    @Test
+    void if_none_match_is_compared_with_etag() {
+        assertTrue(CacheUtils.isNotModified(ETAG, null, ETAG, LAST_MODIFIED));
+        assertTrue(CacheUtils.isNotModified("\"other\", W/" + ETAG, null, ETAG, LAST_MODIFIED));
+        assertTrue(CacheUtils.isNotModified("*", null, ETAG, LAST_MODIFIED));
+        assertFalse(CacheUtils.isNotModified("\"other\"", null, ETAG, LAST_MODIFIED));
+        assertFalse(CacheUtils.isNotModified(ETAG, null, null, LAST_MODIFIED));
+        // If-Modified-Since is ignored when there is If-None-Match
+        assertFalse(CacheUtils.isNotModified("\"other\"", "Thu, 02 Nov 2023 10:21:44 GMT", ETAG, LAST_MODIFIED));
+    }
+
+    @Test
+    void if_modified_since_is_compared_in_seconds() {
+        assertTrue(CacheUtils.isNotModified(null, "Thu, 02 Nov 2023 10:21:44 GMT", ETAG, LAST_MODIFIED));
+        assertTrue(CacheUtils.isNotModified(null, "Fri, 03 Nov 2023 00:00:00 GMT", ETAG, LAST_MODIFIED));
+        assertFalse(CacheUtils.isNotModified(null, "Thu, 02 Nov 2023 10:21:43 GMT", ETAG, LAST_MODIFIED));
+        assertFalse(CacheUtils.isNotModified(null, "yesterday", ETAG, LAST_MODIFIED));
+        assertFalse(CacheUtils.isNotModified(null, null, ETAG, LAST_MODIFIED));
+    }
+}
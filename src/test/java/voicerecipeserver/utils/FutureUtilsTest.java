@@ -0,0 +1,53 @@
+package voicerecipeserver.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FutureUtilsTest {
+
+    @Test
+    void slow_future_is_cancelled_at_shared_deadline() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch never = new CountDownLatch(1);
+            Future<String> fast = executor.submit(() -> "fast");
+            Future<String> slow = executor.submit(() -> {
+                never.await();
+                return "slow";
+            });
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+
+            assertEquals("fast", FutureUtils.getBefore(fast, deadline));
+            assertNull(FutureUtils.getBefore(slow, deadline));
+            assertTrue(slow.isCancelled());
+            assertTrue(System.nanoTime() - deadline < TimeUnit.SECONDS.toNanos(1));
+            // the deadline has passed, a done future is still returned
+            assertEquals("fast", FutureUtils.getBefore(fast, deadline));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failure_is_rethrown() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> failed = executor.submit(() -> {
+                throw new IllegalStateException("no connection");
+            });
+            ExecutionException e = assertThrows(ExecutionException.class, () -> FutureUtils.getBefore(
+                    failed, System.nanoTime() + TimeUnit.SECONDS.toNanos(1)));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
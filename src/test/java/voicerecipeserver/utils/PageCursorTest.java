@@ -0,0 +1,42 @@
+package voicerecipeserver.utils;
+
+import org.junit.jupiter.api.Test;
+import voicerecipeserver.model.exceptions.BadRequestException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageCursorTest {
+
+    @Test
+    void keys_survive_encoding() throws BadRequestException {
+        String cursor = PageCursor.encode(0.0607927f, "Суп, с / курицей?&", 42L);
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+
+        PageCursor decoded = PageCursor.decode(cursor, 3);
+        assertEquals(0.0607927f, decoded.getFloat(0));
+        assertEquals("Суп, с / курицей?&", decoded.getString(1));
+        assertEquals(42L, decoded.getLong(2));
+        assertEquals("", PageCursor.decode(PageCursor.encode("", 1L), 2).getString(0));
+    }
+
+    @Test
+    void no_cursor_is_null_and_broken_cursor_is_rejected() throws BadRequestException {
+        assertNull(PageCursor.decode(null, 1));
+        assertNull(PageCursor.decode("", 1));
+        assertThrows(BadRequestException.class, () -> PageCursor.decode("not base64!", 1));
+        assertThrows(BadRequestException.class, () -> PageCursor.decode(PageCursor.encode(1L, 2L), 1));
+        assertThrows(BadRequestException.class, () -> PageCursor.decode(PageCursor.encode("name"), 1).getLong(0));
+    }
+
+    @Test
+    void page_number_is_used_only_without_cursor() {
+        assertEquals(0, PageCursor.getOffset(null, 10, null));
+        assertEquals(30, PageCursor.getOffset(null, 10, 3));
+        assertEquals(0, PageCursor.getOffset(PageCursor.encode(5L), 10, 3));
+        assertTrue(PageCursor.hasNext(List.of(1, 2), 2));
+        assertFalse(PageCursor.hasNext(List.of(1), 2));
+        assertFalse(PageCursor.hasNext(List.of(), 0));
+    }
+}
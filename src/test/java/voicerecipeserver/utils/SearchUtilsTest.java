@@ -0,0 +1,20 @@
+package voicerecipeserver.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchUtilsTest {
+
+    @Test
+    void every_word_becomes_a_prefix() {
+        assertEquals("суп:* & с:* & кур:*", SearchUtils.toPrefixTsQuery("Суп с кур"));
+        assertEquals("борщ:* & 2:*", SearchUtils.toPrefixTsQuery("  борщ-2 "));
+    }
+
+    @Test
+    void operators_of_tsquery_are_dropped() {
+        assertEquals("a:* & b:*", SearchUtils.toPrefixTsQuery("a' | !b:*"));
+        assertEquals("", SearchUtils.toPrefixTsQuery("&|!()"));
+    }
+}